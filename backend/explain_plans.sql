@@ -0,0 +1,78 @@
+--------------------------------------------------------
+--  Vérification des plans d'exécution des lectures de dépenses (Oracle)
+--  À exécuter après les migrations Flyway :
+--    sqlplus -S utilisateur/mot_de_passe@base @explain_plans.sql
+--  Chaque plan doit passer par l'index indiqué (INDEX RANGE SCAN ou UNIQUE SCAN)
+--  et ne contenir ni TABLE ACCESS FULL ni SORT ORDER BY ; sinon le script
+--  s'arrête avec un code de sortie non nul.
+--------------------------------------------------------
+
+WHENEVER SQLERROR EXIT FAILURE ROLLBACK
+SET SERVEROUTPUT ON
+
+EXEC DBMS_STATS.GATHER_TABLE_STATS(USER, 'EXPENSES');
+EXEC DBMS_STATS.GATHER_TABLE_STATS(USER, 'USERS');
+
+DELETE FROM PLAN_TABLE
+WHERE STATEMENT_ID IN ('LIST', 'NEXT_PAGE', 'RANGE', 'SUM_CATEGORY', 'LOGIN');
+
+-- Liste / première page keyset : IDX_EXPENSES_USER_DATE_ID, pas de SORT ORDER BY
+EXPLAIN PLAN SET STATEMENT_ID = 'LIST' FOR
+SELECT * FROM expenses WHERE user_id = :user_id
+ORDER BY expense_date DESC, id DESC FETCH FIRST 51 ROWS ONLY;
+
+-- Page suivante keyset : IDX_EXPENSES_USER_DATE_ID
+EXPLAIN PLAN SET STATEMENT_ID = 'NEXT_PAGE' FOR
+SELECT * FROM expenses WHERE user_id = :user_id
+AND (expense_date < :cursor_date OR (expense_date = :cursor_date AND id < :cursor_id))
+ORDER BY expense_date DESC, id DESC FETCH FIRST 51 ROWS ONLY;
+
+-- Filtre de période : IDX_EXPENSES_USER_DATE_ID
+EXPLAIN PLAN SET STATEMENT_ID = 'RANGE' FOR
+SELECT * FROM expenses WHERE user_id = :user_id
+AND expense_date BETWEEN :start_date AND :end_date
+ORDER BY expense_date DESC, id DESC;
+
+-- Agrégat par catégorie sur une période : IDX_EXPENSES_USER_CAT_DATE
+EXPLAIN PLAN SET STATEMENT_ID = 'SUM_CATEGORY' FOR
+SELECT category, SUM(amount), COUNT(*) FROM expenses
+WHERE user_id = :user_id AND expense_date BETWEEN :start_date AND :end_date
+GROUP BY category;
+
+-- Connexion : USERS_UNIQUE_EMAIL (INDEX UNIQUE SCAN)
+EXPLAIN PLAN SET STATEMENT_ID = 'LOGIN' FOR
+SELECT * FROM users WHERE email = :email;
+
+SELECT STATEMENT_ID, OPERATION, OPTIONS, OBJECT_NAME
+FROM PLAN_TABLE
+WHERE STATEMENT_ID IN ('LIST', 'NEXT_PAGE', 'RANGE', 'SUM_CATEGORY', 'LOGIN')
+ORDER BY STATEMENT_ID, ID;
+
+DECLARE
+  PROCEDURE expect_index(p_statement VARCHAR2, p_index VARCHAR2) IS
+    v_index_scans NUMBER;
+    v_full_or_sort NUMBER;
+  BEGIN
+    SELECT COUNT(*) INTO v_index_scans FROM PLAN_TABLE
+     WHERE STATEMENT_ID = p_statement AND OPERATION = 'INDEX' AND OBJECT_NAME = p_index
+       AND OPTIONS IN ('RANGE SCAN', 'RANGE SCAN DESCENDING', 'UNIQUE SCAN');
+    SELECT COUNT(*) INTO v_full_or_sort FROM PLAN_TABLE
+     WHERE STATEMENT_ID = p_statement
+       AND ((OPERATION = 'TABLE ACCESS' AND OPTIONS = 'FULL')
+         OR (OPERATION = 'SORT' AND OPTIONS = 'ORDER BY'));
+    IF v_index_scans = 0 OR v_full_or_sort > 0 THEN
+      RAISE_APPLICATION_ERROR(-20001, p_statement || ': expected an index scan on ' || p_index
+        || ' without TABLE ACCESS FULL or SORT ORDER BY');
+    END IF;
+    DBMS_OUTPUT.PUT_LINE(p_statement || ': ' || p_index || ' OK');
+  END;
+BEGIN
+  expect_index('LIST', 'IDX_EXPENSES_USER_DATE_ID');
+  expect_index('NEXT_PAGE', 'IDX_EXPENSES_USER_DATE_ID');
+  expect_index('RANGE', 'IDX_EXPENSES_USER_DATE_ID');
+  expect_index('SUM_CATEGORY', 'IDX_EXPENSES_USER_CAT_DATE');
+  expect_index('LOGIN', 'USERS_UNIQUE_EMAIL');
+END;
+/
+
+EXIT SUCCESS
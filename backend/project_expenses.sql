@@ -169,3 +169,15 @@ Insert into SYSTEM.USERS (ID,USERNAME,EMAIL,CREATED_AT,PASSWORD_HASH) values ('4
 
   ALTER TABLE "SYSTEM"."EXPENSES" ADD CONSTRAINT "FK_EXPENSE_USER" FOREIGN KEY ("USER_ID")
 	  REFERENCES "SYSTEM"."USERS" ("ID") ON DELETE CASCADE ENABLE;
+--------------------------------------------------------
+--  DDL for Sequence EXPENSE_ID_SEQ
+--  (un identifiant par NEXTVAL ; INCREMENT BY 50 : migration V1_2)
+--------------------------------------------------------
+
+   CREATE SEQUENCE  "SYSTEM"."EXPENSE_ID_SEQ"  MINVALUE 1 MAXVALUE 9999999999999999999999999999 INCREMENT BY 1 START WITH 36 CACHE 20 NOORDER  NOCYCLE ;
+--------------------------------------------------------
+--  DDL for Sequence USER_ID_SEQ
+--  (un identifiant par NEXTVAL ; INCREMENT BY 20 : migration V1_2)
+--------------------------------------------------------
+
+   CREATE SEQUENCE  "SYSTEM"."USER_ID_SEQ"  MINVALUE 1 MAXVALUE 9999999999999999999999999999 INCREMENT BY 1 START WITH 42 CACHE 20 NOORDER  NOCYCLE ;
@@ -0,0 +1,90 @@
+package org.example.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.entity.Expense;
+import org.example.entity.ExpenseCategory;
+import org.example.service.JwtService;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Données et objets partagés par les benchmarks (sans contexte Spring)
+ */
+final class BenchmarkSupport {
+
+    static final String SECRET_KEY = "mySecretKeyForExpenseTrackerAPIThatIsLongEnoughForHS256AlgorithmAndVerySecure123!";
+
+    private static final ExpenseCategory[] CATEGORIES = ExpenseCategory.values();
+    private static final LocalDate TODAY = LocalDate.of(2025, 8, 28);
+
+    private BenchmarkSupport() {}
+
+    /**
+     * ObjectMapper configuré comme celui de Spring Boot (dates ISO-8601)
+     */
+    static ObjectMapper objectMapper() {
+        return JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    /**
+     * JwtService initialisé comme par Spring (@Value puis @PostConstruct)
+     */
+    static JwtService jwtService() throws ReflectiveOperationException {
+        JwtService jwtService = new JwtService();
+        setField(jwtService, "secretKey", SECRET_KEY);
+        setField(jwtService, "jwtExpiration", 86_400_000L);
+        setField(jwtService, "cacheMaxSize", 10_000L);
+        Method init = JwtService.class.getDeclaredMethod("init");
+        init.setAccessible(true);
+        init.invoke(jwtService);
+        return jwtService;
+    }
+
+    /**
+     * Liste de dépenses réalistes (catégories et dates variées)
+     */
+    static List<Expense> expenses(int size) {
+        List<Expense> expenses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            expenses.add(expense(i));
+        }
+        return expenses;
+    }
+
+    /**
+     * i-ème dépense de la liste, créée à la demande (comme une ligne lue par le curseur JDBC)
+     */
+    static Expense expense(int i) {
+        Expense expense = new Expense(21L, "Visite médicale " + i,
+                BigDecimal.valueOf(1000 + i, 2), CATEGORIES[i % CATEGORIES.length], TODAY.minusDays(i % 730));
+        expense.setId((long) i + 1);
+        return expense;
+    }
+
+    /**
+     * Logback sans configuration journalise tout en DEBUG (Hibernate, Flyway) : WARN comme l'application
+     */
+    static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
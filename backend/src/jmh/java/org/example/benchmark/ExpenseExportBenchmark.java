@@ -0,0 +1,80 @@
+package org.example.benchmark;
+
+import org.example.service.ExpenseExportFormat;
+import org.example.service.ExpenseExportWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Export CSV/XLSX de GET /api/expenses/export sur un historique de 1 million de lignes.
+ * Les dépenses sont créées une à une comme par le curseur JDBC et le fichier est jeté.
+ * Le tas est limité à 64 Mo, bien moins que le million d'entités : l'export doit passer
+ * sans OutOfMemoryError et le pic de tas affiché après chaque itération reste le même
+ * quel que soit le nombre de lignes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx64m")
+public class ExpenseExportBenchmark {
+
+    @Param({"csv", "xlsx"})
+    private String format;
+
+    @Param({"1000000"})
+    private int rows;
+
+    private List<MemoryPoolMXBean> heapPools;
+
+    @Setup(Level.Iteration)
+    public void resetPeak() {
+        System.gc();
+        heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @TearDown(Level.Iteration)
+    public void printPeak() {
+        long peak = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        System.out.printf("%nPeak heap used: %d MB%n", peak / (1024 * 1024));
+    }
+
+    @Benchmark
+    public long export() throws IOException {
+        CountingOutputStream output = new CountingOutputStream();
+        ExpenseExportWriter writer = ExpenseExportFormat.parse(format).open(output);
+        for (int i = 0; i < rows; i++) {
+            writer.write(BenchmarkSupport.expense(i));
+        }
+        writer.finish();
+        return output.count;
+    }
+
+    /**
+     * Flux qui ne garde que le nombre d'octets écrits
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.benchmark;
+
+import org.example.entity.Expense;
+import org.example.entity.ExpenseCategoryConverter;
+import org.flywaydb.core.Flyway;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Insertion d'un lot de dépenses par Hibernate (H2 en mode Oracle, schéma Flyway, batch JDBC de 50)
+ * avec l'allocation d'identifiants de Expense : pooled-lo (un NEXTVAL par bloc de
+ * Expense.ID_ALLOCATION_SIZE identifiants) contre none (un NEXTVAL par ligne, comme
+ * allocationSize = 1). Le nombre de NEXTVAL par lot est affiché après chaque itération ;
+ * sur Oracle, chacun est un aller-retour réseau de plus par ligne insérée.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseInsertBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:insert-benchmark;MODE=Oracle;DB_CLOSE_DELAY=-1;DEFAULT_NULL_ORDERING=HIGH";
+    private static final Long USER_ID = 21L;
+
+    @Param({"pooled-lo", "none"})
+    private String optimizer;
+
+    @Param({"500"})
+    private int batch;
+
+    private final AtomicLong nextvalCalls = new AtomicLong();
+    private long batches;
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkSupport.quietLogging();
+        Flyway.configure().dataSource(URL, "sa", "").load().migrate();
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             PreparedStatement user = connection.prepareStatement(
+                     "INSERT INTO users (id, username, email, created_at, password_hash) VALUES (?, ?, ?, ?, ?)")) {
+            user.setLong(1, USER_ID);
+            user.setString(2, "benchmark");
+            user.setString(3, "benchmark@example.com");
+            user.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+            user.setString(5, "-");
+            user.executeUpdate();
+        }
+
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Expense.class)
+                .addAnnotatedClass(ExpenseCategoryConverter.class)
+                .setStatementInspector(sql -> {
+                    if (sql.toLowerCase(Locale.ROOT).contains("next value for")) {
+                        nextvalCalls.incrementAndGet();
+                    }
+                    return sql;
+                })
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, URL)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, "")
+                .setProperty(AvailableSettings.JAKARTA_VALIDATION_MODE, "none")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .setProperty(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, optimizer)
+                // none : Hibernate ramène l'incrément à 1 (un NEXTVAL par ligne) alors que la séquence
+                // avance de 50 ; la comparaison avec INCREMENT BY est donc désactivée
+                .setProperty(AvailableSettings.SEQUENCE_INCREMENT_SIZE_MISMATCH_STRATEGY, "none")
+                .buildSessionFactory();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounters() {
+        nextvalCalls.set(0);
+        batches = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void printRoundTrips() throws SQLException {
+        System.out.printf("%nNEXTVAL round trips per batch of %d inserts: %.1f%n",
+                batch, (double) nextvalCalls.get() / batches);
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM expenses");
+        }
+    }
+
+    @Benchmark
+    public long insertBatch() {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            for (int i = 0; i < batch; i++) {
+                Expense expense = BenchmarkSupport.expense(i);
+                expense.setId(null);
+                session.persist(expense);
+            }
+            transaction.commit();
+        }
+        return ++batches;
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.ExpenseListResponse;
+import org.example.dto.ExpenseResponse;
+import org.example.entity.Expense;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction et sérialisation JSON de la réponse de GET /api/expenses
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpenseListBenchmark {
+
+    @Param({"10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Expense> expenses;
+    private ExpenseListResponse response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkSupport.objectMapper();
+        expenses = BenchmarkSupport.expenses(size);
+        response = buildResponse();
+    }
+
+    // Équivalent de buildExpenseResponse sur toute la liste
+    @Benchmark
+    public ExpenseListResponse buildResponse() {
+        List<ExpenseResponse> rows = expenses.stream()
+                .map(ExpenseResponse::from)
+                .toList();
+        return ExpenseListResponse.of(rows, null);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] buildAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(buildResponse());
+    }
+}
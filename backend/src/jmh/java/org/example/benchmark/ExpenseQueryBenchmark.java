@@ -0,0 +1,162 @@
+package org.example.benchmark;
+
+import org.example.dto.ExpenseResponse;
+import org.example.entity.Expense;
+import org.example.entity.ExpenseCategoryConverter;
+import org.example.repository.ExpenseRepository;
+import org.flywaydb.core.Flyway;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.jpa.HibernateHints;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecture d'une liste de dépenses par Hibernate (H2 en mode Oracle, schéma Flyway) :
+ * entités gérées comme avant, entités en lecture seule, puis projection dans la réponse.
+ * Le coût par ligne (hydratation, snapshot, dirty checking) se lit dans gc.alloc.rate.norm ;
+ * la taille de fetch n'a d'effet qu'avec un pilote réseau (Oracle), pas sur H2 embarqué.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseQueryBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:benchmark;MODE=Oracle;DB_CLOSE_DELAY=-1;DEFAULT_NULL_ORDERING=HIGH";
+    private static final Long USER_ID = 21L;
+
+    private static final String ENTITY_QUERY =
+            "SELECT e FROM Expense e WHERE e.userId = :userId ORDER BY e.expenseDate DESC, e.id DESC";
+    private static final String PROJECTION_QUERY =
+            ExpenseRepository.RESPONSE_SELECT + "WHERE e.userId = :userId ORDER BY e.expenseDate DESC, e.id DESC";
+
+    @Param({"10000"})
+    private int size;
+
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkSupport.quietLogging();
+        Flyway.configure().dataSource(URL, "sa", "").load().migrate();
+        seed();
+
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Expense.class)
+                .addAnnotatedClass(ExpenseCategoryConverter.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, URL)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, "")
+                .setProperty(AvailableSettings.JAKARTA_VALIDATION_MODE, "none")
+                .buildSessionFactory();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    // Avant : entités gérées dans une transaction en écriture, converties en réponses
+    @Benchmark
+    public List<ExpenseResponse> managedEntities() {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            List<ExpenseResponse> responses = session.createQuery(ENTITY_QUERY, Expense.class)
+                    .setParameter("userId", USER_ID)
+                    .getResultList()
+                    .stream()
+                    .map(ExpenseResponse::from)
+                    .toList();
+            transaction.commit();
+            return responses;
+        }
+    }
+
+    // Entités en lecture seule (sans snapshot), toujours converties en réponses
+    @Benchmark
+    public List<ExpenseResponse> readOnlyEntities() {
+        try (Session session = readOnlySession()) {
+            Transaction transaction = session.beginTransaction();
+            List<ExpenseResponse> responses = session.createQuery(ENTITY_QUERY, Expense.class)
+                    .setParameter("userId", USER_ID)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, ExpenseRepository.LIST_FETCH_SIZE)
+                    .getResultList()
+                    .stream()
+                    .map(ExpenseResponse::from)
+                    .toList();
+            transaction.commit();
+            return responses;
+        }
+    }
+
+    // Après : projection directe dans la réponse, transaction en lecture seule
+    @Benchmark
+    public List<ExpenseResponse> projection() {
+        try (Session session = readOnlySession()) {
+            Transaction transaction = session.beginTransaction();
+            List<ExpenseResponse> responses = session.createQuery(PROJECTION_QUERY, ExpenseResponse.class)
+                    .setParameter("userId", USER_ID)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, ExpenseRepository.LIST_FETCH_SIZE)
+                    .getResultList();
+            transaction.commit();
+            return responses;
+        }
+    }
+
+    // Comme @Transactional(readOnly = true) : pas de flush, entités en lecture seule par défaut
+    private Session readOnlySession() {
+        Session session = sessionFactory.openSession();
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+        return session;
+    }
+
+    private void seed() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "")) {
+            try (PreparedStatement user = connection.prepareStatement(
+                    "INSERT INTO users (id, username, email, created_at, password_hash) VALUES (?, ?, ?, ?, ?)")) {
+                user.setLong(1, USER_ID);
+                user.setString(2, "benchmark");
+                user.setString(3, "benchmark@example.com");
+                user.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                user.setString(5, "-");
+                user.executeUpdate();
+            }
+
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO expenses (id, user_id, description, amount, category, expense_date, created_at, updated_at) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (int i = 0; i < size; i++) {
+                    Expense expense = BenchmarkSupport.expense(i);
+                    insert.setLong(1, expense.getId());
+                    insert.setLong(2, expense.getUserId());
+                    insert.setString(3, expense.getDescription());
+                    insert.setBigDecimal(4, expense.getAmount());
+                    insert.setString(5, String.valueOf(expense.getCategory().getCode()));
+                    insert.setObject(6, expense.getExpenseDate());
+                    insert.setTimestamp(7, Timestamp.valueOf(expense.getCreatedAt()));
+                    insert.setTimestamp(8, Timestamp.valueOf(expense.getUpdatedAt()));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+    }
+}
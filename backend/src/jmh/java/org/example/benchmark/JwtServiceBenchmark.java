@@ -0,0 +1,48 @@
+package org.example.benchmark;
+
+import org.example.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de l'émission et de la vérification des JWT sur le chemin de chaque requête authentifiée
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        jwtService = BenchmarkSupport.jwtService();
+        token = jwtService.generateToken(21L, "testuser", "test@example.com");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(21L, "testuser", "test@example.com");
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token);
+    }
+
+    @Benchmark
+    public Long getUserIdFromToken() {
+        return jwtService.getUserIdFromToken(token);
+    }
+
+    // Vérification complète (signature HMAC + claims), sans le cache
+    @Benchmark
+    public Object verify() {
+        return jwtService.verify(token);
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.ExpenseRequest;
+import org.example.entity.ExpenseCategory;
+import org.example.service.ExpenseService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecture d'un corps de création de dépense : montant, catégorie et date
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestParsingBenchmark {
+
+    private static final String BODY =
+            "{\"description\":\"Courses chez Carrefour\",\"amount\":\"45.50\",\"category\":\"Groceries\",\"expense_date\":\"2025-08-27\"}";
+
+    private ObjectMapper objectMapper;
+    private ExpenseService expenseService;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkSupport.objectMapper();
+        expenseService = new ExpenseService();
+    }
+
+    // Montant (BigDecimal exact) et date (LocalDate) lus par Jackson
+    @Benchmark
+    public ExpenseRequest readRequest() throws IOException {
+        return objectMapper.readValue(BODY, ExpenseRequest.class);
+    }
+
+    @Benchmark
+    public ExpenseCategory parseCategory() {
+        return expenseService.parseCategory("Groceries");
+    }
+
+    // Chemin d'erreur : construction du message des catégories valides
+    @Benchmark
+    public String parseInvalidCategory() {
+        try {
+            expenseService.parseCategory("Restaurant");
+            return null;
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Client HTTP minimal de l'API, chaque appel est chronométré par endpoint
+ */
+class ApiClient {
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+
+    ApiClient(String baseUrl, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+    }
+
+    /**
+     * Réponse d'un appel : statut HTTP et corps JSON
+     */
+    record Response(int status, JsonNode body) {
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    Response call(String endpoint, String method, String path, String token,
+                  String contentType, String body) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            builder.header("Content-Type", contentType);
+            builder.method(method, HttpRequest.BodyPublishers.ofString(body));
+        } else {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        long elapsed = System.nanoTime() - start;
+
+        boolean ok = response.statusCode() >= 200 && response.statusCode() < 300;
+        if (endpoint != null) {
+            recorder.record(endpoint, elapsed, ok);
+        }
+
+        JsonNode json = response.body().length == 0 ? null : objectMapper.readTree(response.body());
+        return new Response(response.statusCode(), json);
+    }
+
+    Response json(String endpoint, String method, String path, String token, Object body)
+            throws IOException, InterruptedException {
+        String payload = body == null ? null : objectMapper.writeValueAsString(body);
+        return call(endpoint, method, path, token, "application/json", payload);
+    }
+}
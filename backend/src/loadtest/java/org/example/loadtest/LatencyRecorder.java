@@ -0,0 +1,71 @@
+package org.example.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enregistre les latences par endpoint et calcule p50/p95/p99 et le débit
+ */
+class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos, boolean success) {
+        Samples endpointSamples = samples.computeIfAbsent(endpoint, k -> new Samples());
+        endpointSamples.add(nanos);
+        if (!success) {
+            endpointSamples.errors.incrementAndGet();
+        }
+    }
+
+    List<Result> results(double durationSeconds) {
+        List<Result> results = new ArrayList<>();
+        samples.forEach((endpoint, endpointSamples) -> {
+            long[] sorted = endpointSamples.sorted();
+            results.add(new Result(endpoint, sorted.length, endpointSamples.errors.get(),
+                    sorted.length / durationSeconds,
+                    percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99)));
+        });
+        results.sort((a, b) -> a.endpoint().compareTo(b.endpoint()));
+        return results;
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    /**
+     * Statistiques d'un endpoint (latences en millisecondes)
+     */
+    record Result(String endpoint, long requests, long errors, double throughput,
+                  double p50, double p95, double p99) {
+    }
+
+    private static class Samples {
+
+        private long[] values = new long[1024];
+        private int size;
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void add(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package org.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.example.Main;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+
+/**
+ * Test de charge de bout en bout : démarre l'application sur une base H2 en mode Oracle,
+ * crée N utilisateurs x M dépenses puis rejoue un mélange réaliste d'appels
+ * (login, liste, filtres, résumé, création, modification, suppression).
+ *
+ * Avant la charge, des inscriptions concurrentes sur un même email puis un même username
+ * vérifient que les contraintes d'unicité n'acceptent qu'un compte (loadtest.duplicates).
+ *
+ * Paramètres (propriétés système) : loadtest.users, loadtest.expenses, loadtest.threads,
+ * loadtest.duration (s), loadtest.warmup (s), loadtest.duplicates, loadtest.output, loadtest.baseline.
+ * Les clients simulés tournent sur des threads virtuels pour monter à plusieurs milliers
+ * de connexions ; -Dspring.threads.virtual.enabled=true bascule le serveur dans le même mode.
+ */
+public class LoadTest {
+
+    private static final String PASSWORD = "loadtest-password";
+    private static final String[] CATEGORIES = {
+            "Groceries", "Leisure", "Electronics", "Utilities", "Clothing", "Health", "Others"};
+
+    private final int users = Integer.getInteger("loadtest.users", 20);
+    private final int expensesPerUser = Integer.getInteger("loadtest.expenses", 1000);
+    private final int threads = Integer.getInteger("loadtest.threads", 16);
+    private final int durationSeconds = Integer.getInteger("loadtest.duration", 30);
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmup", 5);
+    private final int duplicates = Integer.getInteger("loadtest.duplicates", 20);
+    private final String output = System.getProperty("loadtest.output", "target/loadtest-result.json");
+    private final String baseline = System.getProperty("loadtest.baseline");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * Utilisateur simulé : identifiants, session (tokens) et dépenses créées pendant le test
+     */
+    private record VirtualUser(String email, Session session, ConcurrentLinkedDeque<Long> ownExpenseIds) {
+    }
+
+    /**
+     * Access token et refresh token courants ; le refresh token étant à usage unique,
+     * un seul worker à la fois le renouvelle.
+     */
+    private static final class Session {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile String token;
+        private volatile String refreshToken;
+
+        private void update(JsonNode body) {
+            if (body.path("success").asBoolean()) {
+                token = body.path("token").asText();
+                refreshToken = body.path("refresh_token").asText();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest().run();
+    }
+
+    /**
+     * Propriétés de l'application pour une base embarquée (aucune dépendance à Oracle XE)
+     */
+    static Map<String, Object> embeddedProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.url",
+                "jdbc:h2:mem:loadtest;MODE=Oracle;DB_CLOSE_DELAY=-1;DEFAULT_NULL_ORDERING=HIGH");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.jpa.hibernate.ddl-auto", "validate");
+        properties.put("spring.jpa.database-platform", "org.example.config.H2OracleModeDialect");
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("spring.jpa.properties.hibernate.jdbc.batch_size", 50);
+        properties.put("spring.jpa.properties.hibernate.order_inserts", true);
+        properties.put("spring.jpa.properties.hibernate.order_updates", true);
+        properties.put("spring.jpa.properties.hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+        properties.put("spring.autoconfigure.exclude",
+                "org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration,"
+                        + "org.springframework.boot.actuate.autoconfigure.security.servlet.ManagementWebSecurityAutoConfiguration");
+        properties.put("jwt.secret.key",
+                "mySecretKeyForExpenseTrackerAPIThatIsLongEnoughForHS256AlgorithmAndVerySecure123!");
+        properties.put("jwt.expiration.time", 86_400_000L);
+        properties.put("logging.level.root", "WARN");
+        return properties;
+    }
+
+    private void run() throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Main.class)
+                .properties(embeddedProperties())
+                .run();
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            boolean virtualThreads = context.getEnvironment()
+                    .getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+            System.out.printf("Server threads: %s, client connections: %d%n",
+                    virtualThreads ? "virtual" : "platform", threads);
+            LatencyRecorder seedRecorder = new LatencyRecorder();
+            ApiClient seedClient = new ApiClient("http://localhost:" + port + "/api", seedRecorder);
+
+            checkDuplicateRegistrations(seedClient);
+            List<VirtualUser> virtualUsers = seed(seedClient);
+
+            // Préchauffage (JIT, caches, pool de connexions) non mesuré
+            LatencyRecorder warmupRecorder = new LatencyRecorder();
+            replay(new ApiClient("http://localhost:" + port + "/api", warmupRecorder), virtualUsers, warmupSeconds);
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            replay(new ApiClient("http://localhost:" + port + "/api", recorder), virtualUsers, durationSeconds);
+
+            List<LatencyRecorder.Result> results = recorder.results(durationSeconds);
+            report(results);
+            write(results);
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Création des utilisateurs et import de leurs dépenses (CSV via /api/expenses/batch)
+     */
+    private List<VirtualUser> seed(ApiClient client) throws IOException, InterruptedException {
+        List<VirtualUser> virtualUsers = new ArrayList<>();
+        long importedRows = 0;
+        long importNanos = 0;
+
+        for (int u = 0; u < users; u++) {
+            String username = "loaduser" + u;
+            String email = username + "@example.com";
+            client.json(null, "POST", "/users/register", null,
+                    Map.of("username", username, "email", email, "password", PASSWORD));
+            Session session = new Session();
+            session.update(login(client, null, email));
+            String token = session.token;
+
+            StringBuilder csv = new StringBuilder("description,amount,category,expense_date\n");
+            LocalDate today = LocalDate.now();
+            for (int e = 0; e < expensesPerUser; e++) {
+                csv.append("Dépense ").append(e).append(',')
+                        .append(1 + ThreadLocalRandom.current().nextInt(50_000) / 100.0).append(',')
+                        .append(CATEGORIES[e % CATEGORIES.length]).append(',')
+                        .append(today.minusDays(e % 1095)).append('\n');
+            }
+
+            long start = System.nanoTime();
+            ApiClient.Response response = client.call(null, "POST", "/expenses/batch", token, "text/csv", csv.toString());
+            importNanos += System.nanoTime() - start;
+            importedRows += response.body().path("imported").asLong();
+
+            virtualUsers.add(new VirtualUser(email, session, new ConcurrentLinkedDeque<>()));
+        }
+
+        System.out.printf("Seeded %d users, %d expenses (import: %.0f rows/s)%n",
+                users, importedRows, importedRows / (importNanos / 1e9));
+        return virtualUsers;
+    }
+
+    /**
+     * Inscriptions simultanées en conflit : une seule doit aboutir, les autres sont rejetées
+     * par la contrainte d'unicité avec le message attendu (400)
+     */
+    private void checkDuplicateRegistrations(ApiClient client) throws InterruptedException {
+        checkDuplicateRegistrations(client, "Email already exists",
+                i -> Map.of("username", "dupemail" + i, "email", "duplicate@example.com", "password", PASSWORD));
+        checkDuplicateRegistrations(client, "Username already exists",
+                i -> Map.of("username", "dupuser", "email", "dupuser" + i + "@example.com", "password", PASSWORD));
+    }
+
+    private void checkDuplicateRegistrations(ApiClient client, String expectedMessage,
+                                             IntFunction<Map<String, Object>> request) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(duplicates);
+        AtomicInteger created = new AtomicInteger();
+        ConcurrentLinkedDeque<String> unexpected = new ConcurrentLinkedDeque<>();
+
+        for (int i = 0; i < duplicates; i++) {
+            Map<String, Object> body = request.apply(i);
+            Thread.ofVirtual().name("duplicate-" + i).start(() -> {
+                try {
+                    start.await();
+                    ApiClient.Response response = client.json(null, "POST", "/users/register", null, body);
+                    if (response.status() == 201) {
+                        created.incrementAndGet();
+                    } else if (response.status() != 400
+                            || !expectedMessage.equals(response.body().path("message").asText())) {
+                        unexpected.add(response.status() + " " + response.body());
+                    }
+                } catch (Exception e) {
+                    unexpected.add(e.toString());
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        done.await();
+
+        if (created.get() != 1 || !unexpected.isEmpty()) {
+            throw new IllegalStateException(String.format("Concurrent registrations (%s): %d created, unexpected %s",
+                    expectedMessage, created.get(), unexpected));
+        }
+        System.out.printf("Concurrent registrations: 1 of %d created, others rejected (%s)%n",
+                duplicates, expectedMessage);
+    }
+
+    private JsonNode login(ApiClient client, String endpoint, String email) throws IOException, InterruptedException {
+        ApiClient.Response response = client.json(endpoint, "POST", "/users/login", null,
+                Map.of("email", email, "password", PASSWORD));
+        return response.body();
+    }
+
+    /**
+     * Rejoue le mélange d'appels sur plusieurs threads pendant la durée donnée
+     */
+    private void replay(ApiClient client, List<VirtualUser> virtualUsers, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            Thread.ofVirtual().name("loadtest-" + t).start(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        VirtualUser user = virtualUsers.get(ThreadLocalRandom.current().nextInt(virtualUsers.size()));
+                        step(client, user);
+                    }
+                } catch (Exception e) {
+                    System.err.println("Worker failed: " + e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private void step(ApiClient client, VirtualUser user) throws IOException, InterruptedException {
+        Session session = user.session();
+        String token = session.token;
+        int roll = ThreadLocalRandom.current().nextInt(100);
+
+        if (roll < 5) {
+            // Renouvellement du token (1 fois sur 5 par une connexion complète) ;
+            // une réponse en échec (503 si le hachage est saturé) conserve la session courante
+            if (session.lock.tryLock()) {
+                try {
+                    session.update(roll == 0
+                            ? login(client, "POST /users/login", user.email())
+                            : client.json("POST /users/refresh", "POST", "/users/refresh", null,
+                                    Map.of("refresh_token", session.refreshToken)).body());
+                } finally {
+                    session.lock.unlock();
+                }
+            }
+        } else if (roll < 30) {
+            client.json("GET /expenses?limit=50", "GET", "/expenses?limit=50", token, null);
+        } else if (roll < 40) {
+            client.json("GET /expenses", "GET", "/expenses", token, null);
+        } else if (roll < 55) {
+            client.json("GET /expenses?filter=month", "GET", "/expenses?filter=month", token, null);
+        } else if (roll < 70) {
+            client.json("GET /expenses/summary", "GET", "/expenses/summary", token, null);
+        } else if (roll < 85) {
+            ApiClient.Response response = client.json("POST /expenses", "POST", "/expenses", token, randomExpense());
+            if (response.ok()) {
+                user.ownExpenseIds().add(response.body().path("expense").path("id").asLong());
+            }
+        } else if (roll < 93) {
+            Long id = user.ownExpenseIds().peekLast();
+            if (id != null) {
+                client.json("PUT /expenses/{id}", "PUT", "/expenses/" + id, token, randomExpense());
+            }
+        } else {
+            Long id = user.ownExpenseIds().pollFirst();
+            if (id != null) {
+                client.json("DELETE /expenses/{id}", "DELETE", "/expenses/" + id, token, null);
+            }
+        }
+    }
+
+    private Map<String, Object> randomExpense() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Map.of(
+                "description", "Dépense de charge " + random.nextInt(1000),
+                "amount", String.valueOf(1 + random.nextInt(50_000) / 100.0),
+                "category", CATEGORIES[random.nextInt(CATEGORIES.length)],
+                "expense_date", LocalDate.now().minusDays(random.nextInt(365)).toString());
+    }
+
+    private void report(List<LatencyRecorder.Result> results) throws IOException {
+        Map<String, JsonNode> baselineResults = readBaseline();
+
+        System.out.printf("%n%-28s %9s %7s %9s %9s %9s %9s %12s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p95 ms", "p99 ms", "p95 vs base");
+        for (LatencyRecorder.Result result : results) {
+            JsonNode base = baselineResults.get(result.endpoint());
+            String delta = base == null ? "-"
+                    : String.format("%+.1f%%", (result.p95() / base.path("p95").asDouble() - 1) * 100);
+            System.out.printf("%-28s %9d %7d %9.1f %9.2f %9.2f %9.2f %12s%n",
+                    result.endpoint(), result.requests(), result.errors(), result.throughput(),
+                    result.p50(), result.p95(), result.p99(), delta);
+        }
+    }
+
+    private Map<String, JsonNode> readBaseline() throws IOException {
+        Map<String, JsonNode> baselineResults = new HashMap<>();
+        if (baseline != null) {
+            for (JsonNode node : objectMapper.readTree(new File(baseline)).path("results")) {
+                baselineResults.put(node.path("endpoint").asText(), node);
+            }
+        }
+        return baselineResults;
+    }
+
+    private void write(List<LatencyRecorder.Result> results) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("users", users);
+        root.put("expensesPerUser", expensesPerUser);
+        root.put("threads", threads);
+        root.put("durationSeconds", durationSeconds);
+        ArrayNode array = root.putArray("results");
+        for (LatencyRecorder.Result result : results) {
+            array.addPOJO(result);
+        }
+
+        File file = new File(output);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        objectMapper.writeValue(file, root);
+        System.out.println("Results written to " + file.getPath());
+    }
+}
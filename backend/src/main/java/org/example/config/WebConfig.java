@@ -0,0 +1,33 @@
+package org.example.config;
+
+import org.example.security.AuthenticatedUserArgumentResolver;
+import org.example.security.JwtAuthenticationInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private JwtAuthenticationInterceptor jwtAuthenticationInterceptor;
+
+    @Autowired
+    private AuthenticatedUserArgumentResolver authenticatedUserArgumentResolver;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Toutes les API Expense nécessitent un JWT
+        registry.addInterceptor(jwtAuthenticationInterceptor)
+                .addPathPatterns("/api/expenses", "/api/expenses/**");
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(authenticatedUserArgumentResolver);
+    }
+}
@@ -1,24 +1,58 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
-import jakarta.servlet.http.HttpServletRequest;
+import org.example.dto.ExpenseChangesResponse;
+import org.example.dto.ExpenseImportResponse;
+import org.example.dto.ExpenseListResponse;
+import org.example.dto.ExpenseRequest;
+import org.example.dto.ExpenseResponse;
+import org.example.dto.ExpenseResult;
+import org.example.dto.ExpenseSummaryResponse;
+import org.example.dto.MessageResponse;
 import org.example.entity.Expense;
 import org.example.entity.ExpenseCategory;
+import org.example.security.AuthenticatedUser;
+import org.example.service.ExpenseChanges;
+import org.example.service.ExpenseEventService;
+import org.example.service.ExpenseExportFormat;
+import org.example.service.ExpenseExportWriter;
+import org.example.service.DateRange;
+import org.example.service.ExpenseImportService;
+import org.example.service.ExpensePage;
+import org.example.service.ExpenseSearchService;
 import org.example.service.ExpenseService;
-import org.example.service.JwtService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
-import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @Tag(name = "Expense Management", description = "APIs for managing user expenses")
 @RestController
@@ -29,7 +63,16 @@ public class ExpenseController {
     private ExpenseService expenseService;
 
     @Autowired
-    private JwtService jwtService;
+    private ExpenseImportService expenseImportService;
+
+    @Autowired
+    private ExpenseEventService expenseEventService;
+
+    @Autowired
+    private ExpenseSearchService expenseSearchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     /**
      * Créer une nouvelle dépense
@@ -39,136 +82,329 @@ public class ExpenseController {
     @ApiResponse(responseCode = "201", description = "Expense created successfully")
     @ApiResponse(responseCode = "400", description = "Invalid request body")
     @PostMapping
-    public ResponseEntity<Map<String, Object>> createExpense(
-            //@RequestHeader("Authorization") String authHeader, swagger le prendrait en param required :/
-            @RequestBody Map<String, Object> request,
-            HttpServletRequest httpRequest) {
+    public ResponseEntity<ExpenseResult> createExpense(
+            @RequestBody ExpenseRequest request,
+            @AuthenticatedUser Long userId) {
+
+        try {
+            // Validation et conversion
+            BigDecimal amount = requireAmount(request.amount());
+            ExpenseCategory category = expenseService.parseCategory(request.category());
 
-        Map<String, Object> response = new HashMap<>();
-        String authHeader = httpRequest.getHeader("Authorization");
+            Expense expense = expenseService.createExpense(userId, request.description(), amount,
+                    category, request.expenseDate());
+
+            // Réponse de succès
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(new ExpenseResult(true, "Expense created successfully", ExpenseResponse.from(expense)));
+
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ExpenseResult.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ExpenseResult.error("An error occurred while creating expense"));
+        }
+    }
+
+    /**
+     * Récupérer toutes les dépenses avec filtres optionnels
+     */
+    @Operation(summary = "Get expenses",
+            description = "Retrieve all expenses or filter by period. Pass limit/cursor for keyset pagination")
+    @ApiResponse(responseCode = "200", description = "Expenses retrieved")
+    @ApiResponse(responseCode = "304", description = "Not modified since the ETag sent in If-None-Match")
+    @GetMapping
+    public ResponseEntity<ExpenseListResponse> getExpenses(
+            @RequestParam(value = "filter", required = false) String filter,
+            @RequestParam(value = "start_date", required = false) String startDate,
+            @RequestParam(value = "end_date", required = false) String endDate,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @AuthenticatedUser Long userId,
+            WebRequest webRequest) {
 
         try {
-            // Extraction du token JWT et vérification
-            Long userId = getUserIdFromToken(authHeader);
-            if (userId == null) {
-                response.put("success", false);
-                response.put("message", "Invalid or expired token");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+            DateRange range = expenseService.resolveFilter(filter, startDate, endDate);
+
+            // 304 sans lire ni sérialiser les dépenses si le client a déjà cette version
+            String etag = etag(userId, expenseService.getExpenseVersion(userId), "list", range, cursor, limit);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
             }
 
-            // Extraction des données
-            String description = (String) request.get("description");
-            Object amountObj = request.get("amount");
-            String categoryStr = (String) request.get("category");
-            String expenseDateStr = (String) request.get("expense_date");
+            // Pagination keyset si un curseur ou une limite est demandé
+            if (cursor != null || limit != null) {
+                ExpensePage page = expenseService.getExpensesPage(userId, range, cursor, limit);
+                return revalidated(etag)
+                        .body(ExpenseListResponse.of(page.expenses(), page.nextCursor()));
+            }
 
-            // Validation et conversion
-            BigDecimal amount = parseAmount(amountObj);
-            ExpenseCategory category = parseCategory(categoryStr);
-            LocalDate expenseDate = parseDate(expenseDateStr);
+            return revalidated(etag).body(ExpenseListResponse.of(expenseService.getExpenses(userId, range), null));
 
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(ExpenseListResponse.error("Invalid date format. Use YYYY-MM-DD"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ExpenseListResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ExpenseListResponse.error("An error occurred while retrieving expenses"));
+        }
+    }
 
-            // Transforme l'enum en valeur compatible DB avant l'insertion
-            ExpenseCategory categoryEnum = parseCategory(categoryStr);
-            Expense expense = expenseService.createExpense(userId, description, amount, categoryEnum, expenseDate);
-            expense.setCategory(categoryEnum); // utilise le setter qui écrit displayName
+    /**
+     * Récupérer les agrégats des dépenses (total, par catégorie, par mois)
+     */
+    @Operation(summary = "Get expense summary",
+            description = "Total, per-category and per-month sums computed by the database, with the same filters as the listing")
+    @ApiResponse(responseCode = "200", description = "Summary retrieved")
+    @ApiResponse(responseCode = "304", description = "Not modified since the ETag sent in If-None-Match")
+    @GetMapping("/summary")
+    public ResponseEntity<ExpenseSummaryResponse> getSummary(
+            @RequestParam(value = "filter", required = false) String filter,
+            @RequestParam(value = "start_date", required = false) String startDate,
+            @RequestParam(value = "end_date", required = false) String endDate,
+            @AuthenticatedUser Long userId,
+            WebRequest webRequest) {
 
+        try {
+            DateRange range = expenseService.resolveFilter(filter, startDate, endDate);
 
+            String etag = etag(userId, expenseService.getExpenseVersion(userId), "summary", range);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
 
-            // Réponse de succès
-            Map<String, Object> expenseResponse = buildExpenseResponse(expense);
+            return revalidated(etag).body(ExpenseSummaryResponse.of(expenseService.getSummary(userId, range)));
 
-            response.put("success", true);
-            response.put("message", "Expense created successfully");
-            response.put("expense", expenseResponse);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(ExpenseSummaryResponse.error("Invalid date format. Use YYYY-MM-DD"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ExpenseSummaryResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ExpenseSummaryResponse.error("An error occurred while computing summary"));
+        }
+    }
 
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    /**
+     * Rechercher dans les descriptions (termes en préfixe, sans accents ni casse), avec filtres optionnels
+     */
+    @Operation(summary = "Search expenses",
+            description = "Full-text search over descriptions: every term of q must match a word prefix, " +
+                    "accents and case ignored. Combines with category and period filters")
+    @ApiResponse(responseCode = "200", description = "Matching expenses, newest first")
+    @ApiResponse(responseCode = "304", description = "Not modified since the ETag sent in If-None-Match")
+    @ApiResponse(responseCode = "400", description = "Missing query or invalid filter")
+    @GetMapping("/search")
+    public ResponseEntity<ExpenseListResponse> searchExpenses(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "filter", required = false) String filter,
+            @RequestParam(value = "start_date", required = false) String startDate,
+            @RequestParam(value = "end_date", required = false) String endDate,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @AuthenticatedUser Long userId,
+            WebRequest webRequest) {
+
+        try {
+            DateRange range = expenseService.resolveFilter(filter, startDate, endDate);
+            ExpenseCategory expenseCategory = category == null ? null : expenseService.parseCategory(category);
 
+            long version = expenseService.getExpenseVersion(userId);
+            String etag = etag(userId, version, "search", query, expenseCategory, range, limit);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+
+            List<Expense> expenses = expenseSearchService.search(userId, version, query, expenseCategory, range, limit);
+            return revalidated(etag).body(ExpenseListResponse.of(toResponses(expenses), null));
+
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(ExpenseListResponse.error("Invalid date format. Use YYYY-MM-DD"));
         } catch (RuntimeException e) {
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.badRequest().body(response);
+            return ResponseEntity.badRequest().body(ExpenseListResponse.error(e.getMessage()));
         } catch (Exception e) {
-            response.put("success", false);
-            response.put("message", "An error occurred while creating expense");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ExpenseListResponse.error("An error occurred while searching expenses"));
         }
     }
 
     /**
-     * Récupérer toutes les dépenses avec filtres optionnels
+     * Synchronisation incrémentale : dépenses créées, modifiées et supprimées depuis un watermark
      */
-    @Operation(summary = "Get expenses", description = "Retrieve all expenses or filter by period")
-    @ApiResponse(responseCode = "200", description = "Expenses retrieved")
-    @GetMapping
-    public ResponseEntity<Map<String, Object>> getExpenses(
-            //@RequestHeader("Authorization") String authHeader, swagger le prendrait en param required :/
+    @Operation(summary = "Get expense changes",
+            description = "Expenses created or updated and ids deleted since the given watermark. " +
+                    "Omit since for a full sync; pass the returned watermark on the next call")
+    @ApiResponse(responseCode = "200", description = "Changes retrieved")
+    @ApiResponse(responseCode = "400", description = "Invalid watermark, a full sync is required")
+    @GetMapping("/changes")
+    public ResponseEntity<ExpenseChangesResponse> getChanges(
+            @RequestParam(value = "since", required = false) Long since,
+            @AuthenticatedUser Long userId) {
+
+        try {
+            ExpenseChanges changes = expenseService.getChanges(userId, since);
+            return ResponseEntity.ok(ExpenseChangesResponse.of(
+                    toResponses(changes.changed()), changes.deletedIds(), changes.watermark()));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ExpenseChangesResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ExpenseChangesResponse.error("An error occurred while retrieving changes"));
+        }
+    }
+
+    /**
+     * Flux SSE des changements de dépenses de l'utilisateur (created, updated, deleted, imported)
+     */
+    @Operation(summary = "Subscribe to expense events",
+            description = "Server-Sent Events stream of the user's expense changes. " +
+                    "Each event id is the expense version, usable as since for /changes after a reconnection")
+    @ApiResponse(responseCode = "200", description = "Event stream opened")
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeEvents(@AuthenticatedUser Long userId) {
+        return expenseEventService.subscribe(userId, expenseService.getExpenseVersion(userId));
+    }
+
+    /**
+     * Diffuser les dépenses en NDJSON (une dépense par ligne) sans les charger toutes en mémoire
+     */
+    @Operation(summary = "Stream expenses",
+            description = "Stream all expenses (or filtered by period) as newline-delimited JSON")
+    @ApiResponse(responseCode = "200", description = "Expenses streamed")
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamExpenses(
             @RequestParam(value = "filter", required = false) String filter,
             @RequestParam(value = "start_date", required = false) String startDate,
             @RequestParam(value = "end_date", required = false) String endDate,
-            HttpServletRequest httpRequest) {
+            @AuthenticatedUser Long userId) {
 
-        Map<String, Object> response = new HashMap<>();
-        String authHeader = httpRequest.getHeader("Authorization");
+        DateRange range;
         try {
-            // Extraction du token JWT et vérification
-            Long userId = getUserIdFromToken(authHeader);
-            if (userId == null) {
-                response.put("success", false);
-                response.put("message", "Invalid or expired token");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
-            }
+            range = expenseService.resolveFilter(filter, startDate, endDate);
+        } catch (DateTimeParseException e) {
+            return streamingError("Invalid date format. Use YYYY-MM-DD");
+        } catch (IllegalArgumentException e) {
+            return streamingError(e.getMessage());
+        }
 
-            List<Expense> expenses;
-
-            // Application des filtres
-            if (filter != null) {
-                switch (filter.toLowerCase()) {
-                    case "week":
-                        expenses = expenseService.getExpensesLastWeek(userId);
-                        break;
-                    case "month":
-                        expenses = expenseService.getExpensesLastMonth(userId);
-                        break;
-                    case "3months":
-                        expenses = expenseService.getExpensesLast3Months(userId);
-                        break;
-                    case "custom":
-                        if (startDate == null || endDate == null) {
-                            response.put("success", false);
-                            response.put("message", "Start date and end date are required for custom filter");
-                            return ResponseEntity.badRequest().body(response);
-                        }
-                        LocalDate start = LocalDate.parse(startDate);
-                        LocalDate end = LocalDate.parse(endDate);
-                        expenses = expenseService.getExpensesByDateRange(userId, start, end);
-                        break;
-                    default:
-                        expenses = expenseService.getAllExpensesByUser(userId);
-                        break;
+        // Le curseur JDBC reste ouvert le temps de l'écriture, dans la transaction du service
+        StreamingResponseBody body = outputStream ->
+                expenseService.streamExpenses(userId, range, expense -> {
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(ExpenseResponse.from(expense)));
+                        outputStream.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Exporter l'historique en CSV ou XLSX, écrit directement dans la réponse depuis le curseur JDBC
+     */
+    @Operation(summary = "Export expenses",
+            description = "Download all expenses (or filtered by period) as CSV or XLSX. " +
+                    "CSV is gzip-compressed when the client accepts it")
+    @ApiResponse(responseCode = "200", description = "Export streamed")
+    @ApiResponse(responseCode = "400", description = "Invalid format or filter")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(
+            @RequestParam(value = "format", required = false) String format,
+            @RequestParam(value = "filter", required = false) String filter,
+            @RequestParam(value = "start_date", required = false) String startDate,
+            @RequestParam(value = "end_date", required = false) String endDate,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @AuthenticatedUser Long userId) {
+
+        ExpenseExportFormat exportFormat;
+        DateRange range;
+        try {
+            exportFormat = ExpenseExportFormat.parse(format);
+            range = expenseService.resolveFilter(filter, startDate, endDate);
+        } catch (DateTimeParseException e) {
+            return streamingError("Invalid date format. Use YYYY-MM-DD");
+        } catch (IllegalArgumentException e) {
+            return streamingError(e.getMessage());
+        }
+
+        // Le XLSX est déjà une archive zip : seul le CSV gagne à être compressé
+        boolean gzip = exportFormat == ExpenseExportFormat.CSV
+                && acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        StreamingResponseBody body = outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream, 64 * 1024) : outputStream;
+            ExpenseExportWriter writer = exportFormat.open(target);
+            expenseService.streamExpenses(userId, range, expense -> {
+                try {
+                    writer.write(expense);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
-            } else {
-                expenses = expenseService.getAllExpensesByUser(userId);
+            });
+            writer.finish();
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
             }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("expenses-" + LocalDate.now() + "." + exportFormat.getExtension())
+                        .build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
 
-            // Construction de la réponse
-            response.put("success", true);
-            response.put("message", "Expenses retrieved successfully");
-            response.put("count", expenses.size());
-            response.put("expenses", expenses.stream()
-                    .map(this::buildExpenseResponse)
-                    .toList());
+    /**
+     * Importer des dépenses en masse depuis un tableau JSON
+     */
+    @Operation(summary = "Import expenses (JSON)",
+            description = "Import a JSON array of expenses; valid rows are inserted in JDBC batches, invalid rows are reported")
+    @ApiResponse(responseCode = "200", description = "Import completed, see per-row errors")
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ExpenseImportResponse> importExpensesJson(
+            InputStream body,
+            @AuthenticatedUser Long userId) {
+
+        try {
+            return ResponseEntity.ok(ExpenseImportResponse.of(expenseImportService.importJson(userId, body)));
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            return ResponseEntity.badRequest().body(ExpenseImportResponse.error(
+                    e instanceof IllegalArgumentException ? e.getMessage() : "Invalid JSON body"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ExpenseImportResponse.error("An error occurred while importing expenses"));
+        }
+    }
 
-            return ResponseEntity.ok(response);
+    /**
+     * Importer des dépenses en masse depuis un CSV (en-tête description,amount,category,expense_date)
+     */
+    @Operation(summary = "Import expenses (CSV)",
+            description = "Import a CSV stream with header description,amount,category,expense_date")
+    @ApiResponse(responseCode = "200", description = "Import completed, see per-row errors")
+    @PostMapping(value = "/batch", consumes = "text/csv")
+    public ResponseEntity<ExpenseImportResponse> importExpensesCsv(
+            InputStream body,
+            @AuthenticatedUser Long userId) {
 
-        } catch (DateTimeParseException e) {
-            response.put("success", false);
-            response.put("message", "Invalid date format. Use YYYY-MM-DD");
-            return ResponseEntity.badRequest().body(response);
+        try {
+            return ResponseEntity.ok(ExpenseImportResponse.of(expenseImportService.importCsv(userId, body)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ExpenseImportResponse.error(e.getMessage()));
         } catch (Exception e) {
-            response.put("success", false);
-            response.put("message", "An error occurred while retrieving expenses");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ExpenseImportResponse.error("An error occurred while importing expenses"));
         }
     }
 
@@ -180,57 +416,27 @@ public class ExpenseController {
     @ApiResponse(responseCode = "200", description = "Expense updated")
     @ApiResponse(responseCode = "404", description = "Expense not found")
     @PutMapping("/{expenseId}")
-    public ResponseEntity<Map<String, Object>> updateExpense(
-            //@RequestHeader("Authorization") String authHeader,
+    public ResponseEntity<ExpenseResult> updateExpense(
             @PathVariable Long expenseId,
-            @RequestBody Map<String, Object> request,
-            HttpServletRequest httpRequest) {
-
-        Map<String, Object> response = new HashMap<>();
-        String authHeader = httpRequest.getHeader("Authorization");
+            @RequestBody ExpenseRequest request,
+            @AuthenticatedUser Long userId) {
 
         try {
-            // Extraction du token JWT et vérification
-            Long userId = getUserIdFromToken(authHeader);
-            if (userId == null) {
-                response.put("success", false);
-                response.put("message", "Invalid or expired token");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
-            }
-
-            // Extraction des données
-            String description = (String) request.get("description");
-            Object amountObj = request.get("amount");
-            String categoryStr = (String) request.get("category");
-            String expenseDateStr = (String) request.get("expense_date");
-
             // Validation et conversion
-            BigDecimal amount = parseAmount(amountObj);
-            ExpenseCategory category = parseCategory(categoryStr);
-            LocalDate expenseDate = parseDate(expenseDateStr);
+            BigDecimal amount = requireAmount(request.amount());
+            ExpenseCategory category = expenseService.parseCategory(request.category());
 
-            ExpenseCategory categoryEnum = parseCategory(categoryStr);
-            Expense expense = expenseService.updateExpense(userId, expenseId, description, amount, categoryEnum, expenseDate);
-            // optionnel : ajuster la valeur pour la DB si nécessaire
-            expense.setCategory(categoryEnum);
+            Expense expense = expenseService.updateExpense(userId, expenseId, request.description(), amount,
+                    category, request.expenseDate());
 
             // Réponse de succès
-            Map<String, Object> expenseResponse = buildExpenseResponse(expense);
-
-            response.put("success", true);
-            response.put("message", "Expense updated successfully");
-            response.put("expense", expenseResponse);
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(new ExpenseResult(true, "Expense updated successfully", ExpenseResponse.from(expense)));
 
         } catch (RuntimeException e) {
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.badRequest().body(response);
+            return ResponseEntity.badRequest().body(ExpenseResult.error(e.getMessage()));
         } catch (Exception e) {
-            response.put("success", false);
-            response.put("message", "An error occurred while updating expense");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ExpenseResult.error("An error occurred while updating expense"));
         }
     }
 
@@ -241,114 +447,94 @@ public class ExpenseController {
     @ApiResponse(responseCode = "200", description = "Expense deleted")
     @ApiResponse(responseCode = "404", description = "Expense not found")
     @DeleteMapping("/{expenseId}")
-    public ResponseEntity<Map<String, Object>> deleteExpense(
-            //@RequestHeader("Authorization") String authHeader,
+    public ResponseEntity<MessageResponse> deleteExpense(
             @PathVariable Long expenseId,
-            HttpServletRequest httpRequest) {
-
-        Map<String, Object> response = new HashMap<>();
-        String authHeader = httpRequest.getHeader("Authorization");
+            @AuthenticatedUser Long userId) {
 
         try {
-            // Extraction du token JWT et vérification
-            Long userId = getUserIdFromToken(authHeader);
-            if (userId == null) {
-                response.put("success", false);
-                response.put("message", "Invalid or expired token");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
-            }
-
             // Suppression de la dépense
             boolean deleted = expenseService.deleteExpense(userId, expenseId);
 
             if (deleted) {
-                response.put("success", true);
-                response.put("message", "Expense deleted successfully");
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok(new MessageResponse(true, "Expense deleted successfully"));
             } else {
-                response.put("success", false);
-                response.put("message", "Expense not found or access denied");
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new MessageResponse(false, "Expense not found or access denied"));
             }
 
         } catch (Exception e) {
-            response.put("success", false);
-            response.put("message", "An error occurred while deleting expense");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse(false, "An error occurred while deleting expense"));
         }
     }
 
-    private Long getUserIdFromToken(String authHeader) {
-        try {
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                return null;
-            }
-
-            String token = authHeader.substring(7);
-
-            if (!jwtService.isTokenValid(token)) {
-                return null;
+    /**
+     * Corps JSON illisible : montant ou date mal formés
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<MessageResponse> handleUnreadableBody(HttpMessageNotReadableException e) {
+        String message = "Invalid request body";
+        if (e.getCause() instanceof InvalidFormatException invalidFormat && !invalidFormat.getPath().isEmpty()) {
+            String field = invalidFormat.getPath().get(0).getFieldName();
+            if ("amount".equals(field)) {
+                message = "Invalid amount format";
+            } else if ("expense_date".equals(field)) {
+                message = "Invalid date format. Use YYYY-MM-DD";
             }
-
-            return jwtService.getUserIdFromToken(token);
-        } catch (Exception e) {
-            return null;
         }
+        return ResponseEntity.badRequest().body(new MessageResponse(false, message));
     }
 
-    private BigDecimal parseAmount(Object amountObj) {
-        if (amountObj == null) {
-            throw new RuntimeException("Amount is required");
-        }
-
+    /**
+     * ETag fort : utilisateur, version de ses dépenses et SHA-256 de la forme de la réponse
+     * (ressource, filtre, pagination), chaque paramètre précédé de sa longueur (-1 : absent).
+     * La version est lue avant les données : au pire l'ETag est plus ancien que le contenu, jamais l'inverse.
+     */
+    private String etag(Long userId, long version, String resource, Object... parameters) {
         try {
-            if (amountObj instanceof Number) {
-                return BigDecimal.valueOf(((Number) amountObj).doubleValue());
-            } else if (amountObj instanceof String) {
-                return new BigDecimal((String) amountObj);
-            } else {
-                throw new RuntimeException("Invalid amount format");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(resource.getBytes(StandardCharsets.UTF_8));
+            for (Object parameter : parameters) {
+                byte[] value = parameter == null ? new byte[0] : parameter.toString().getBytes(StandardCharsets.UTF_8);
+                digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(parameter == null ? -1 : value.length).array());
+                digest.update(value);
             }
-        } catch (NumberFormatException e) {
-            throw new RuntimeException("Invalid amount format");
+            return "\"" + userId + "-" + version + "-" + HexFormat.of().formatHex(digest.digest()) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 
-    private ExpenseCategory parseCategory(String categoryStr) {
-        if (categoryStr == null || categoryStr.trim().isEmpty()) {
-            throw new RuntimeException("Category is required");
-        }
-
-        try {
-            return ExpenseCategory.valueOf(categoryStr.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException("Invalid category. Valid categories: " +
-                    String.join(", ", java.util.Arrays.stream(ExpenseCategory.values())
-                            .map(ExpenseCategory::name).toArray(String[]::new)));
-        }
+    /**
+     * Réponse 200 portant l'ETag, à revalider par le client (et non partagée entre utilisateurs)
+     */
+    private ResponseEntity.BodyBuilder revalidated(String etag) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate());
     }
 
-    private LocalDate parseDate(String dateStr) {
-        if (dateStr == null || dateStr.trim().isEmpty()) {
-            throw new RuntimeException("Expense date is required");
-        }
+    /**
+     * Réponse 400 JSON d'un endpoint en flux : Spring choisit le traitement en flux d'après
+     * le type déclaré ResponseEntity<StreamingResponseBody>, l'erreur doit donc en être un
+     */
+    private ResponseEntity<StreamingResponseBody> streamingError(String message) {
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> outputStream.write(
+                        objectMapper.writeValueAsBytes(new MessageResponse(false, message))));
+    }
 
-        try {
-            return LocalDate.parse(dateStr);
-        } catch (DateTimeParseException e) {
-            throw new RuntimeException("Invalid date format. Use YYYY-MM-DD");
+    private BigDecimal requireAmount(BigDecimal amount) {
+        if (amount == null) {
+            throw new RuntimeException("Amount is required");
         }
+        return amount;
     }
 
-    private Map<String, Object> buildExpenseResponse(Expense expense) {
-        Map<String, Object> expenseResponse = new HashMap<>();
-        expenseResponse.put("id", expense.getId());
-        expenseResponse.put("description", expense.getDescription());
-        expenseResponse.put("amount", expense.getAmount());
-        expenseResponse.put("category", expense.getCategory()); // déjà une String maintenant
-        expenseResponse.put("expense_date", expense.getExpenseDate());
-        expenseResponse.put("created_at", expense.getCreatedAt());
-        expenseResponse.put("updated_at", expense.getUpdatedAt());
-        return expenseResponse;
+    private List<ExpenseResponse> toResponses(List<Expense> expenses) {
+        return expenses.stream()
+                .map(ExpenseResponse::from)
+                .toList();
     }
-}
\ No newline at end of file
+}
@@ -2,8 +2,11 @@ package org.example.controller;
 
 import org.example.entity.User;
 import org.example.service.JwtService;
+import org.example.service.PasswordHashingBusyException;
+import org.example.service.RefreshTokenService;
 import org.example.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -26,6 +29,9 @@ public class UserController {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     // swagger implementation
     @Operation(summary = "Register a new user",
             description = "Create a new user account with username, email and password")
@@ -76,6 +82,10 @@ public class UserController {
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
 
+        } catch (PasswordHashingBusyException e) {
+            // File de hachage saturée : rejet immédiat, le client peut réessayer
+            return serviceUnavailable(response, e);
+
         } catch (RuntimeException e) {
             // Gestion des erreurs (email/username déjà existant, mot de passe trop court, etc.)
             response.put("success", false);
@@ -92,7 +102,7 @@ public class UserController {
 
     // swagger implementation
     @Operation(summary = "User login",
-            description = "Authenticate user and return JWT token")
+            description = "Authenticate user and return a short-lived JWT and a refresh token")
     @ApiResponse(responseCode = "200", description = "Login successful")
     @ApiResponse(responseCode = "400", description = "Invalid credentials")
     @PostMapping("/login")
@@ -116,23 +126,17 @@ public class UserController {
                 return ResponseEntity.badRequest().body(response);
             }
 
-            // Recherche de l'utilisateur par email
-            User user = userService.findByEmail(email.trim());
+            // Recherche de l'utilisateur et vérification du mot de passe
+            User user = userService.authenticate(email.trim(), password);
             if (user == null) {
                 response.put("success", false);
                 response.put("message", "Invalid email or password");
                 return ResponseEntity.badRequest().body(response);
             }
 
-            // Vérification du mot de passe
-            if (!userService.checkPassword(password, user.getPasswordHash())) {
-                response.put("success", false);
-                response.put("message", "Invalid email or password");
-                return ResponseEntity.badRequest().body(response);
-            }
-
-            // Génération du token JWT
+            // Génération du token JWT et du refresh token
             String token = jwtService.generateToken(user.getId(), user.getUsername(), user.getEmail());
+            String refreshToken = refreshTokenService.issue(user.getId());
 
             // Réponse de succès
             Map<String, Object> userResponse = new HashMap<>();
@@ -143,10 +147,15 @@ public class UserController {
             response.put("success", true);
             response.put("message", "Login successful");
             response.put("token", token);
+            response.put("refresh_token", refreshToken);
+            response.put("expires_in", jwtService.getExpirationTime() / 1000);
             response.put("user", userResponse);
 
             return ResponseEntity.ok(response);
 
+        } catch (PasswordHashingBusyException e) {
+            return serviceUnavailable(response, e);
+
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "An error occurred during login");
@@ -154,4 +163,91 @@ public class UserController {
         }
 
     }
+
+    // swagger implementation
+    @Operation(summary = "Refresh access token",
+            description = "Exchange a refresh token for a new JWT and a new refresh token (the old one is consumed)")
+    @ApiResponse(responseCode = "200", description = "Token refreshed")
+    @ApiResponse(responseCode = "401", description = "Invalid, expired or already used refresh token")
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Object>> refreshToken(@RequestBody Map<String, String> request) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            String refreshToken = request.get("refresh_token");
+            if (refreshToken == null || refreshToken.isBlank()) {
+                response.put("success", false);
+                response.put("message", "Refresh token is required");
+                return ResponseEntity.badRequest().body(response);
+            }
+
+            // Rotation : l'ancien refresh token est consommé, aucun hachage de mot de passe
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+            User user = rotation == null ? null : userService.findById(rotation.userId());
+            if (user == null) {
+                response.put("success", false);
+                response.put("message", "Invalid or expired refresh token");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+            }
+
+            String token = jwtService.generateToken(user.getId(), user.getUsername(), user.getEmail());
+
+            response.put("success", true);
+            response.put("message", "Token refreshed");
+            response.put("token", token);
+            response.put("refresh_token", rotation.refreshToken());
+            response.put("expires_in", jwtService.getExpirationTime() / 1000);
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "An error occurred while refreshing token");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    // swagger implementation
+    @Operation(summary = "User logout",
+            description = "Revoke the refresh token and the current JWT")
+    @ApiResponse(responseCode = "200", description = "Logout successful")
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, Object>> logoutUser(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody(required = false) Map<String, String> request) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            String refreshToken = request == null ? null : request.get("refresh_token");
+            if (refreshToken != null && !refreshToken.isBlank()) {
+                refreshTokenService.revoke(refreshToken);
+            }
+
+            // Le JWT courant est placé en liste de révocation jusqu'à son expiration
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                try {
+                    jwtService.revoke(authHeader.substring(7));
+                } catch (Exception e) {
+                    // Token déjà invalide ou expiré : rien à révoquer
+                }
+            }
+
+            response.put("success", true);
+            response.put("message", "Logout successful");
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "An error occurred during logout");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> serviceUnavailable(Map<String, Object> response,
+                                                                   PasswordHashingBusyException e) {
+        response.put("success", false);
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
 }
\ No newline at end of file
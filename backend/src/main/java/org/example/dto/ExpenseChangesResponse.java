@@ -0,0 +1,26 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Réponse de la synchronisation incrémentale : dépenses créées ou modifiées,
+ * identifiants supprimés et watermark à renvoyer au prochain appel (since)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ExpenseChangesResponse(
+        boolean success,
+        String message,
+        List<ExpenseResponse> changed,
+        List<Long> deleted,
+        Long watermark) {
+
+    public static ExpenseChangesResponse of(List<ExpenseResponse> changed, List<Long> deleted, long watermark) {
+        return new ExpenseChangesResponse(true, "Changes retrieved successfully", changed, deleted, watermark);
+    }
+
+    public static ExpenseChangesResponse error(String message) {
+        return new ExpenseChangesResponse(false, message, null, null, null);
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.example.service.ImportReport;
+
+import java.util.List;
+
+/**
+ * Réponse d'un import en masse : compteurs et erreurs ligne par ligne
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ExpenseImportResponse(
+        boolean success,
+        String message,
+        Integer received,
+        Integer imported,
+        List<ImportReport.RowError> errors) {
+
+    public static ExpenseImportResponse of(ImportReport report) {
+        return new ExpenseImportResponse(true, "Import completed", report.received(), report.imported(), report.errors());
+    }
+
+    public static ExpenseImportResponse error(String message) {
+        return new ExpenseImportResponse(false, message, null, null, null);
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Réponse de la liste des dépenses (next_cursor uniquement en mode paginé)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ExpenseListResponse(
+        boolean success,
+        String message,
+        Integer count,
+        List<ExpenseResponse> expenses,
+        @JsonProperty("next_cursor") String nextCursor) {
+
+    public static ExpenseListResponse of(List<ExpenseResponse> expenses, String nextCursor) {
+        return new ExpenseListResponse(true, "Expenses retrieved successfully", expenses.size(), expenses, nextCursor);
+    }
+
+    public static ExpenseListResponse error(String message) {
+        return new ExpenseListResponse(false, message, null, null, null);
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Corps des requêtes de création et de modification d'une dépense.
+ * Le montant est lu directement en BigDecimal, sans passer par un double.
+ */
+public record ExpenseRequest(
+        String description,
+        BigDecimal amount,
+        String category,
+        @JsonProperty("expense_date") LocalDate expenseDate) {
+}
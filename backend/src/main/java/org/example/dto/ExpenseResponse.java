@@ -0,0 +1,39 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.example.entity.Expense;
+import org.example.entity.ExpenseCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Représentation JSON d'une dépense
+ */
+public record ExpenseResponse(
+        Long id,
+        String description,
+        BigDecimal amount,
+        String category,
+        @JsonProperty("expense_date") LocalDate expenseDate,
+        @JsonProperty("created_at") LocalDateTime createdAt,
+        @JsonProperty("updated_at") LocalDateTime updatedAt) {
+
+    // Projection JPQL (ExpenseRepository.RESPONSE_SELECT) : catégorie lue sous forme d'enum
+    public ExpenseResponse(Long id, String description, BigDecimal amount, ExpenseCategory category,
+                           LocalDate expenseDate, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, description, amount, category.getDisplayName(), expenseDate, createdAt, updatedAt);
+    }
+
+    public static ExpenseResponse from(Expense expense) {
+        return new ExpenseResponse(
+                expense.getId(),
+                expense.getDescription(),
+                expense.getAmount(),
+                expense.getCategory().getDisplayName(),
+                expense.getExpenseDate(),
+                expense.getCreatedAt(),
+                expense.getUpdatedAt());
+    }
+}
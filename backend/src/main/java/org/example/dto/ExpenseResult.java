@@ -0,0 +1,14 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Réponse portant une seule dépense (création, modification)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ExpenseResult(boolean success, String message, ExpenseResponse expense) {
+
+    public static ExpenseResult error(String message) {
+        return new ExpenseResult(false, message, null);
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.example.repository.CategoryTotal;
+import org.example.repository.MonthTotal;
+import org.example.service.ExpenseSummary;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Réponse des agrégats de dépenses : total, par catégorie et par mois
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ExpenseSummaryResponse(
+        boolean success,
+        String message,
+        BigDecimal total,
+        Long count,
+        @JsonProperty("by_category") List<CategoryTotalResponse> byCategory,
+        @JsonProperty("by_month") List<MonthTotalResponse> byMonth) {
+
+    public record CategoryTotalResponse(String category, BigDecimal total, Long count) {
+
+        static CategoryTotalResponse from(CategoryTotal categoryTotal) {
+            return new CategoryTotalResponse(categoryTotal.getCategory().getDisplayName(),
+                    categoryTotal.getTotalAmount(), categoryTotal.getExpenseCount());
+        }
+    }
+
+    public record MonthTotalResponse(String month, BigDecimal total, Long count) {
+
+        static MonthTotalResponse from(MonthTotal monthTotal) {
+            int yearMonth = monthTotal.getYearMonth();
+            return new MonthTotalResponse(YearMonth.of(yearMonth / 100, yearMonth % 100).toString(),
+                    monthTotal.getTotalAmount(), monthTotal.getExpenseCount());
+        }
+    }
+
+    public static ExpenseSummaryResponse of(ExpenseSummary summary) {
+        return new ExpenseSummaryResponse(true, "Summary retrieved successfully",
+                summary.total(), summary.count(),
+                summary.byCategory().stream().map(CategoryTotalResponse::from).toList(),
+                summary.byMonth().stream().map(MonthTotalResponse::from).toList());
+    }
+
+    public static ExpenseSummaryResponse error(String message) {
+        return new ExpenseSummaryResponse(false, message, null, null, null, null);
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.dto;
+
+/**
+ * Réponse minimale : statut et message (erreurs, suppression)
+ */
+public record MessageResponse(boolean success, String message) {
+}
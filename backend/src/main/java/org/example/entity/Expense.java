@@ -12,9 +12,12 @@ import java.time.LocalDateTime;
 @Table(name = "expenses")
 public class Expense {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
+    // Un NEXTVAL réserve un bloc de ID_ALLOCATION_SIZE identifiants (doit égaler INCREMENT BY de la séquence)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_seq")
-    @SequenceGenerator(name = "expense_seq", sequenceName = "EXPENSE_ID_SEQ", allocationSize = 1)
+    @SequenceGenerator(name = "expense_seq", sequenceName = "EXPENSE_ID_SEQ", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
@@ -30,11 +33,10 @@ public class Expense {
     @Positive(message = "Amount must be positive")
     private BigDecimal amount;
 
-    @Column(name = "category", nullable = false)
+    // Code d'un caractère en base (ExpenseCategoryConverter)
+    @Column(name = "category", nullable = false, columnDefinition = "char(1)")
     @NotNull(message = "Category is required")
-    private String category;
-
-
+    private ExpenseCategory category;
 
     @Column(name = "expense_date", nullable = false)
     @NotNull(message = "Expense date is required")
@@ -46,6 +48,10 @@ public class Expense {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Version des dépenses de l'utilisateur lors de la dernière écriture (watermark de synchronisation)
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+
     // Constructeurs
     public Expense() {}
 
@@ -53,7 +59,7 @@ public class Expense {
         this.userId = userId;
         this.description = description;
         this.amount = amount;
-        this.category = category.getDisplayName(); // IMPORTANT
+        this.category = category;
         this.expenseDate = expenseDate;
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
@@ -73,10 +79,8 @@ public class Expense {
     public BigDecimal getAmount() { return amount; }
     public void setAmount(BigDecimal amount) { this.amount = amount; }
 
-    public String getCategory() { return category; }
-    public void setCategory(ExpenseCategory category) {
-        this.category = category.getDisplayName(); // stocke la valeur compatible DB
-    }
+    public ExpenseCategory getCategory() { return category; }
+    public void setCategory(ExpenseCategory category) { this.category = category; }
 
     public LocalDate getExpenseDate() { return expenseDate; }
     public void setExpenseDate(LocalDate expenseDate) { this.expenseDate = expenseDate; }
@@ -87,6 +91,9 @@ public class Expense {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    public long getChangeVersion() { return changeVersion; }
+    public void setChangeVersion(long changeVersion) { this.changeVersion = changeVersion; }
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
@@ -1,26 +1,75 @@
 package org.example.entity;
 
+import java.util.Map;
+import java.util.TreeMap;
+
 public enum ExpenseCategory {
-    GROCERIES("Groceries"),
-    LEISURE("Leisure"),
-    ELECTRONICS("Electronics"),
-    UTILITIES("Utilities"),
-    CLOTHING("Clothing"),
-    HEALTH("Health"),
-    OTHERS("Others");
+    GROCERIES("Groceries", 'G'),
+    LEISURE("Leisure", 'L'),
+    ELECTRONICS("Electronics", 'E'),
+    UTILITIES("Utilities", 'U'),
+    CLOTHING("Clothing", 'C'),
+    HEALTH("Health", 'H'),
+    OTHERS("Others", 'O');
+
+    // Recherche par nom insensible à la casse, sans allocation (GROCERIES, groceries, Groceries...)
+    private static final Map<String, ExpenseCategory> BY_NAME = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    // Recherche par code stocké en base, indexée par le caractère
+    private static final ExpenseCategory[] BY_CODE = new ExpenseCategory[128];
+
+    // Liste des noms acceptés, pour les messages d'erreur
+    public static final String VALID_NAMES;
+
+    static {
+        StringBuilder names = new StringBuilder();
+        for (ExpenseCategory category : values()) {
+            BY_NAME.put(category.name(), category);
+            BY_CODE[category.code] = category;
+            names.append(names.isEmpty() ? "" : ", ").append(category.name());
+        }
+        VALID_NAMES = names.toString();
+    }
 
     private final String displayName;
+    private final char code;
 
-    ExpenseCategory(String displayName) {
+    ExpenseCategory(String displayName, char code) {
         this.displayName = displayName;
+        this.code = code;
     }
 
     public String getDisplayName() {
         return displayName;
     }
 
+    /**
+     * Code d'un caractère stocké dans les colonnes category (initiale du libellé)
+     */
+    public char getCode() {
+        return code;
+    }
+
+    /**
+     * Catégorie d'un nom (insensible à la casse), null si inconnu
+     */
+    public static ExpenseCategory fromName(String name) {
+        return BY_NAME.get(name);
+    }
+
+    /**
+     * Catégorie d'un code stocké en base
+     */
+    public static ExpenseCategory fromCode(char code) {
+        ExpenseCategory category = code < BY_CODE.length ? BY_CODE[code] : null;
+        if (category == null) {
+            throw new IllegalArgumentException("Unknown category code: " + code);
+        }
+        return category;
+    }
+
     @Override
     public String toString() {
         return displayName;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package org.example.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+
+/**
+ * Stocke ExpenseCategory sous forme de son code d'un caractère (colonnes CHAR(1))
+ */
+@Converter(autoApply = true)
+public class ExpenseCategoryConverter implements AttributeConverter<ExpenseCategory, String> {
+
+    // Codes par ordinal : pas de chaîne allouée par paramètre lié
+    private static final String[] CODES = Arrays.stream(ExpenseCategory.values())
+            .map(category -> String.valueOf(category.getCode()))
+            .toArray(String[]::new);
+
+    @Override
+    public String convertToDatabaseColumn(ExpenseCategory category) {
+        return category == null ? null : CODES[category.ordinal()];
+    }
+
+    @Override
+    public ExpenseCategory convertToEntityAttribute(String code) {
+        return code == null ? null : ExpenseCategory.fromCode(code.charAt(0));
+    }
+}
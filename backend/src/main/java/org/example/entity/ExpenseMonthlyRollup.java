@@ -0,0 +1,58 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Somme et nombre de dépenses par utilisateur, mois et catégorie.
+ * Maintenu de manière incrémentale par ExpenseService.
+ */
+@Entity
+@Table(name = "expense_monthly_rollup")
+@IdClass(ExpenseMonthlyRollupId.class)
+public class ExpenseMonthlyRollup {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Mois au format numérique yyyymm (ex : 202508)
+    @Id
+    @Column(name = "year_month", nullable = false)
+    private Integer yearMonth;
+
+    // Code de la catégorie (ExpenseCategory.getCode) : Hibernate n'applique pas
+    // les convertisseurs aux attributs d'une @IdClass
+    @Id
+    @Column(name = "category", nullable = false, columnDefinition = "char(1)")
+    private String category;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "expense_count", nullable = false)
+    private Long expenseCount;
+
+    // Constructeurs
+    public ExpenseMonthlyRollup() {}
+
+    /**
+     * Calcule la clé de mois (yyyymm) d'une date de dépense
+     */
+    public static int yearMonthOf(LocalDate date) {
+        return date.getYear() * 100 + date.getMonthValue();
+    }
+
+    // Getters
+    public Long getUserId() { return userId; }
+
+    public Integer getYearMonth() { return yearMonth; }
+
+    public ExpenseCategory getCategory() { return ExpenseCategory.fromCode(category.charAt(0)); }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+
+    public Long getExpenseCount() { return expenseCount; }
+}
@@ -0,0 +1,45 @@
+package org.example.entity;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Clé composite du rollup mensuel : (user_id, year_month, category)
+ */
+public class ExpenseMonthlyRollupId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long userId;
+    private Integer yearMonth;
+    private String category;
+
+    // Constructeurs
+    public ExpenseMonthlyRollupId() {}
+
+    public ExpenseMonthlyRollupId(Long userId, Integer yearMonth, ExpenseCategory category) {
+        this.userId = userId;
+        this.yearMonth = yearMonth;
+        this.category = String.valueOf(category.getCode());
+    }
+
+    public Long getUserId() { return userId; }
+
+    public Integer getYearMonth() { return yearMonth; }
+
+    public ExpenseCategory getCategory() { return ExpenseCategory.fromCode(category.charAt(0)); }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ExpenseMonthlyRollupId that)) return false;
+        return Objects.equals(userId, that.userId)
+                && Objects.equals(yearMonth, that.yearMonth)
+                && Objects.equals(category, that.category);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, yearMonth, category);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Trace d'une dépense supprimée, pour que la synchronisation incrémentale
+ * puisse transmettre les suppressions.
+ */
+@Entity
+@Table(name = "expense_tombstones")
+public class ExpenseTombstone implements Persistable<Long> {
+
+    // Identifiant de la dépense supprimée
+    @Id
+    @Column(name = "expense_id", nullable = false)
+    private Long expenseId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "change_version", nullable = false)
+    private Long changeVersion;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Identifiant attribué par l'application : évite le SELECT préalable de merge() à l'insertion
+    @Transient
+    private boolean isNew;
+
+    // Constructeurs
+    public ExpenseTombstone() {}
+
+    public ExpenseTombstone(Long expenseId, Long userId, Long changeVersion) {
+        this.expenseId = expenseId;
+        this.userId = userId;
+        this.changeVersion = changeVersion;
+        this.deletedAt = LocalDateTime.now();
+        this.isNew = true;
+    }
+
+    // Getters
+    @Override
+    public Long getId() { return expenseId; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    public Long getExpenseId() { return expenseId; }
+
+    public Long getUserId() { return userId; }
+
+    public Long getChangeVersion() { return changeVersion; }
+
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+}
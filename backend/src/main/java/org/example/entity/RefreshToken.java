@@ -0,0 +1,62 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Refresh token opaque, identifié par le SHA-256 du token (jamais stocké en clair).
+ * Chaque utilisation le consomme et en émet un nouveau (rotation).
+ */
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken implements Persistable<String> {
+
+    @Id
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Identifiant attribué par l'application : évite le SELECT préalable de merge() à l'insertion
+    @Transient
+    private boolean isNew;
+
+    // Constructeurs
+    public RefreshToken() {}
+
+    public RefreshToken(String tokenHash, Long userId, LocalDateTime expiresAt) {
+        this.tokenHash = tokenHash;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+        this.createdAt = LocalDateTime.now();
+        this.isNew = true;
+    }
+
+    // Getters
+    @Override
+    public String getId() { return tokenHash; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    public String getTokenHash() { return tokenHash; }
+
+    public Long getUserId() { return userId; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public boolean isExpired() {
+        return expiresAt.isBefore(LocalDateTime.now());
+    }
+}
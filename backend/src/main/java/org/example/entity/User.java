@@ -4,16 +4,36 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 public class User {
 
+    public static final int ID_ALLOCATION_SIZE = 20;
+
+    // Régions du cache de second niveau (créées par HibernateCacheConfig)
+    public static final String CACHE_REGION = "users";
+    public static final String NATURAL_ID_CACHE_REGION = "users-by-email";
+
+    // Contraintes d'unicité de la table (V1__initial_schema.sql et project_expenses.sql)
+    public static final String EMAIL_CONSTRAINT = "USERS_UNIQUE_EMAIL";
+    public static final String USERNAME_CONSTRAINT = "USERS_UNIQUE_USERNAME";
+    // Index portant la contrainte sur le username, nommé dans la violation par H2
+    public static final String USERNAME_INDEX = "UNIQUE_USERNAME";
+
     @Id
+    // Un NEXTVAL réserve un bloc de ID_ALLOCATION_SIZE identifiants (doit égaler INCREMENT BY de la séquence)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
-    @SequenceGenerator(name = "user_seq", sequenceName = "USER_ID_SEQ", allocationSize = 1)
+    @SequenceGenerator(name = "user_seq", sequenceName = "USER_ID_SEQ", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "username", unique = true, nullable = false, length = 50)
@@ -21,6 +41,8 @@ public class User {
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
     private String username;
 
+    // Identifiant naturel : la connexion résout email -> id par le cache natural-id
+    @NaturalId
     @Column(name = "email", unique = true, nullable = false, length = 150)
     @NotBlank(message = "Email is required")
     @Email(message = "Email must be valid")
@@ -33,6 +55,9 @@ public class User {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    // La colonne expense_version n'est pas mappée : elle change à chaque écriture de dépense
+    // et n'est lue et incrémentée que par UserRepository, sans invalider l'utilisateur en cache
+
     // Constructeurs
     public User() {}
 
@@ -0,0 +1,26 @@
+package org.example.repository;
+
+import org.example.entity.ExpenseCategory;
+
+import java.math.BigDecimal;
+
+/**
+ * Somme par catégorie lue depuis le rollup, dont la catégorie est stockée sous forme de code
+ */
+public record CategoryCodeTotal(String code, BigDecimal totalAmount, Long expenseCount) implements CategoryTotal {
+
+    @Override
+    public ExpenseCategory getCategory() {
+        return ExpenseCategory.fromCode(code.charAt(0));
+    }
+
+    @Override
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    @Override
+    public Long getExpenseCount() {
+        return expenseCount;
+    }
+}
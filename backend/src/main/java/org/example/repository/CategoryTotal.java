@@ -0,0 +1,17 @@
+package org.example.repository;
+
+import org.example.entity.ExpenseCategory;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection : somme et nombre de dépenses pour une catégorie
+ */
+public interface CategoryTotal {
+
+    ExpenseCategory getCategory();
+
+    BigDecimal getTotalAmount();
+
+    Long getExpenseCount();
+}
@@ -0,0 +1,58 @@
+package org.example.repository;
+
+import jakarta.persistence.QueryHint;
+import org.example.entity.ExpenseMonthlyRollup;
+import org.example.entity.ExpenseMonthlyRollupId;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ExpenseMonthlyRollupRepository extends JpaRepository<ExpenseMonthlyRollup, ExpenseMonthlyRollupId>,
+        ExpenseMonthlyRollupRepositoryCustom {
+
+    // Espace de requête des écritures natives : seule la table du rollup est touchée
+    // (sans lui, Hibernate viderait tout le cache de second niveau)
+    String ROLLUP_SPACE = "expense_monthly_rollup";
+
+    // Somme par catégorie à partir du rollup (code converti par CategoryCodeTotal)
+    @Query("SELECT new org.example.repository.CategoryCodeTotal(r.category, SUM(r.totalAmount), SUM(r.expenseCount)) " +
+            "FROM ExpenseMonthlyRollup r WHERE r.userId = :userId " +
+            "GROUP BY r.category HAVING SUM(r.expenseCount) > 0 ORDER BY r.category")
+    List<CategoryTotal> sumByCategory(@Param("userId") Long userId);
+
+    // Somme par mois à partir du rollup
+    @Query("SELECT r.yearMonth AS yearMonth, SUM(r.totalAmount) AS totalAmount, SUM(r.expenseCount) AS expenseCount " +
+            "FROM ExpenseMonthlyRollup r WHERE r.userId = :userId " +
+            "GROUP BY r.yearMonth HAVING SUM(r.expenseCount) > 0 ORDER BY r.yearMonth DESC")
+    List<MonthTotal> sumByMonth(@Param("userId") Long userId);
+
+    // Tous les buckets d'un utilisateur
+    List<ExpenseMonthlyRollup> findByUserId(Long userId);
+
+    // Supprimer les buckets d'un utilisateur (avant reconstruction)
+    @Modifying
+    @Query("DELETE FROM ExpenseMonthlyRollup r WHERE r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    // Reconstruire les buckets d'un utilisateur à partir de la table EXPENSES
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ROLLUP_SPACE))
+    @Query(value = "INSERT INTO expense_monthly_rollup (user_id, year_month, category, total_amount, expense_count) " +
+            "SELECT e.user_id, EXTRACT(YEAR FROM e.expense_date) * 100 + EXTRACT(MONTH FROM e.expense_date), " +
+            "e.category, SUM(e.amount), COUNT(*) " +
+            "FROM expenses e WHERE e.user_id = :userId " +
+            "GROUP BY e.user_id, EXTRACT(YEAR FROM e.expense_date) * 100 + EXTRACT(MONTH FROM e.expense_date), e.category",
+            nativeQuery = true)
+    int rebuildForUser(@Param("userId") Long userId);
+
+    // Utilisateurs présents dans les dépenses ou dans le rollup (pour la réconciliation)
+    @Query("SELECT e.userId FROM Expense e UNION SELECT r.userId FROM ExpenseMonthlyRollup r")
+    List<Long> findAllUserIds();
+}
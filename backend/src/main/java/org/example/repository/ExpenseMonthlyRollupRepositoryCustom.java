@@ -0,0 +1,22 @@
+package org.example.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Écritures incrémentales du rollup (MERGE), implémentées en JDBC
+ * par ExpenseMonthlyRollupRepositoryImpl
+ */
+public interface ExpenseMonthlyRollupRepositoryCustom {
+
+    // Appliquer un delta (somme et nombre) à un bucket, en le créant s'il n'existe pas.
+    // La catégorie est passée sous forme de son code (ExpenseCategory.getCode)
+    void applyDelta(Long userId, Integer yearMonth, char category, BigDecimal amount, long countDelta);
+
+    // Déplacer une dépense de son bucket actuel, lu dans la table EXPENSES, vers son nouveau bucket.
+    // À exécuter avant l'UPDATE de la dépense ; sans effet si elle n'existe pas pour cet utilisateur.
+    void moveExpense(Long expenseId, Long userId, Integer yearMonth, char category, BigDecimal amount);
+
+    // Retirer une dépense, lue dans la table EXPENSES, de son bucket.
+    // À exécuter avant le DELETE de la dépense ; sans effet si elle n'existe pas pour cet utilisateur.
+    void removeExpense(Long expenseId, Long userId);
+}
@@ -0,0 +1,100 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * MERGE du rollup exécutés en JDBC sur la connexion de la transaction courante.
+ *
+ * Deux transactions qui créent le même bucket en même temps passent toutes deux par
+ * WHEN NOT MATCHED : la seconde attend la première puis échoue sur la clé primaire
+ * (ORA-00001). Seule l'instruction est annulée ; rejouée, elle trouve la ligne validée
+ * et passe par WHEN MATCHED. Une requête native Hibernate marquerait la transaction
+ * entière rollback-only dès l'échec, d'où l'exécution hors de Hibernate.
+ */
+public class ExpenseMonthlyRollupRepositoryImpl implements ExpenseMonthlyRollupRepositoryCustom {
+
+    // Violation de clé primaire : ORA-00001 (Oracle), SQLSTATE 23505 (H2)
+    private static final int ORACLE_UNIQUE_VIOLATION = 1;
+    private static final String UNIQUE_VIOLATION_STATE = "23505";
+    private static final int MERGE_ATTEMPTS = 3;
+
+    private static final String APPLY_DELTA = "MERGE INTO expense_monthly_rollup r " +
+            "USING (SELECT CAST(? AS NUMBER(19,0)) AS user_id, CAST(? AS NUMBER(6,0)) AS year_month, " +
+            "CAST(? AS CHAR(1)) AS category, CAST(? AS NUMBER(14,2)) AS amount, " +
+            "CAST(? AS NUMBER(19,0)) AS expense_count FROM dual) s " +
+            "ON (r.user_id = s.user_id AND r.year_month = s.year_month AND r.category = s.category) " +
+            "WHEN MATCHED THEN UPDATE SET r.total_amount = r.total_amount + s.amount, " +
+            "r.expense_count = r.expense_count + s.expense_count " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, year_month, category, total_amount, expense_count) " +
+            "VALUES (s.user_id, s.year_month, s.category, s.amount, s.expense_count)";
+
+    private static final String MOVE_EXPENSE = "MERGE INTO expense_monthly_rollup r " +
+            "USING (SELECT d.user_id, d.year_month, d.category, SUM(d.amount) AS amount, SUM(d.expense_count) AS expense_count " +
+            "FROM (SELECT e.user_id, EXTRACT(YEAR FROM e.expense_date) * 100 + EXTRACT(MONTH FROM e.expense_date) AS year_month, " +
+            "e.category, -e.amount AS amount, -1 AS expense_count " +
+            "FROM expenses e WHERE e.id = ? AND e.user_id = ? " +
+            "UNION ALL " +
+            "SELECT e.user_id, CAST(? AS NUMBER(6,0)), CAST(? AS CHAR(1)), CAST(? AS NUMBER(10,2)), 1 " +
+            "FROM expenses e WHERE e.id = ? AND e.user_id = ?) d " +
+            "GROUP BY d.user_id, d.year_month, d.category) s " +
+            "ON (r.user_id = s.user_id AND r.year_month = s.year_month AND r.category = s.category) " +
+            "WHEN MATCHED THEN UPDATE SET r.total_amount = r.total_amount + s.amount, " +
+            "r.expense_count = r.expense_count + s.expense_count " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, year_month, category, total_amount, expense_count) " +
+            "VALUES (s.user_id, s.year_month, s.category, s.amount, s.expense_count)";
+
+    private static final String REMOVE_EXPENSE = "MERGE INTO expense_monthly_rollup r " +
+            "USING (SELECT e.user_id, EXTRACT(YEAR FROM e.expense_date) * 100 + EXTRACT(MONTH FROM e.expense_date) AS year_month, " +
+            "e.category, e.amount FROM expenses e WHERE e.id = ? AND e.user_id = ?) s " +
+            "ON (r.user_id = s.user_id AND r.year_month = s.year_month AND r.category = s.category) " +
+            "WHEN MATCHED THEN UPDATE SET r.total_amount = r.total_amount - s.amount, " +
+            "r.expense_count = r.expense_count - 1 " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, year_month, category, total_amount, expense_count) " +
+            "VALUES (s.user_id, s.year_month, s.category, -s.amount, -1)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void applyDelta(Long userId, Integer yearMonth, char category, BigDecimal amount, long countDelta) {
+        merge(APPLY_DELTA, userId, yearMonth, String.valueOf(category), amount, countDelta);
+    }
+
+    @Override
+    public void moveExpense(Long expenseId, Long userId, Integer yearMonth, char category, BigDecimal amount) {
+        merge(MOVE_EXPENSE, expenseId, userId, yearMonth, String.valueOf(category), amount, expenseId, userId);
+    }
+
+    @Override
+    public void removeExpense(Long expenseId, Long userId) {
+        merge(REMOVE_EXPENSE, expenseId, userId);
+    }
+
+    private void merge(String sql, Object... parameters) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            for (int attempt = 1; ; attempt++) {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    for (int i = 0; i < parameters.length; i++) {
+                        statement.setObject(i + 1, parameters[i]);
+                    }
+                    statement.executeUpdate();
+                    return;
+                } catch (SQLException e) {
+                    if (attempt == MERGE_ATTEMPTS || !isUniqueViolation(e)) {
+                        throw e;
+                    }
+                }
+            }
+        });
+    }
+
+    private static boolean isUniqueViolation(SQLException e) {
+        return e.getErrorCode() == ORACLE_UNIQUE_VIOLATION || UNIQUE_VIOLATION_STATE.equals(e.getSQLState());
+    }
+}
@@ -1,18 +1,40 @@
 package org.example.repository;
 
+import org.example.dto.ExpenseResponse;
 import org.example.entity.Expense;
 import org.example.entity.ExpenseCategory;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
 
+    // Nombre de lignes ramenées par aller-retour JDBC lors du streaming
+    int STREAM_FETCH_SIZE = 500;
+
+    // Nombre de lignes par aller-retour JDBC des listes (une page maximale en deux au plus)
+    int LIST_FETCH_SIZE = 500;
+
+    // Projection des listes : exactement les colonnes de la réponse JSON, sans entité gérée
+    // ni snapshot pour le dirty checking
+    String RESPONSE_SELECT = "SELECT new org.example.dto.ExpenseResponse(e.id, e.description, e.amount, e.category, " +
+            "e.expenseDate, e.createdAt, e.updatedAt) FROM Expense e ";
+
     // Toutes les dépenses d'un utilisateur
     List<Expense> findByUserIdOrderByExpenseDateDesc(Long userId);
 
@@ -27,13 +49,163 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     List<Expense> findByUserIdAndExpenseDateGreaterThanEqualOrderByExpenseDateDesc(
             Long userId, LocalDate fromDate);
 
-    // Vérifier qu'une dépense appartient bien à un utilisateur
-    boolean existsByIdAndUserId(Long expenseId, Long userId);
+    // Dépenses créées ou modifiées après un watermark (index user_id, change_version)
+    List<Expense> findByUserIdAndChangeVersionGreaterThanOrderByChangeVersionAscIdAsc(Long userId, long since);
+
+    // Liste complète (projection) des dépenses d'un utilisateur
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + LIST_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(RESPONSE_SELECT + "WHERE e.userId = :userId ORDER BY e.expenseDate DESC, e.id DESC")
+    List<ExpenseResponse> findResponsesByUserId(@Param("userId") Long userId);
+
+    // Liste complète (projection) des dépenses d'un utilisateur entre deux dates
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + LIST_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(RESPONSE_SELECT + "WHERE e.userId = :userId AND e.expenseDate BETWEEN :startDate AND :endDate " +
+            "ORDER BY e.expenseDate DESC, e.id DESC")
+    List<ExpenseResponse> findResponsesByUserIdBetween(@Param("userId") Long userId,
+                                                       @Param("startDate") LocalDate startDate,
+                                                       @Param("endDate") LocalDate endDate);
+
+    // Première page (keyset, projection) des dépenses d'un utilisateur
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + LIST_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(RESPONSE_SELECT + "WHERE e.userId = :userId ORDER BY e.expenseDate DESC, e.id DESC")
+    List<ExpenseResponse> findPage(@Param("userId") Long userId, Pageable pageable);
+
+    // Page suivante (keyset, projection) : dépenses strictement après le curseur (expense_date, id)
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + LIST_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(RESPONSE_SELECT + "WHERE e.userId = :userId " +
+            "AND (e.expenseDate < :cursorDate OR (e.expenseDate = :cursorDate AND e.id < :cursorId)) " +
+            "ORDER BY e.expenseDate DESC, e.id DESC")
+    List<ExpenseResponse> findPageAfter(@Param("userId") Long userId,
+                                        @Param("cursorDate") LocalDate cursorDate,
+                                        @Param("cursorId") Long cursorId,
+                                        Pageable pageable);
+
+    // Première page (keyset, projection) des dépenses d'un utilisateur entre deux dates
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + LIST_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(RESPONSE_SELECT + "WHERE e.userId = :userId AND e.expenseDate BETWEEN :startDate AND :endDate " +
+            "ORDER BY e.expenseDate DESC, e.id DESC")
+    List<ExpenseResponse> findPageBetween(@Param("userId") Long userId,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate,
+                                          Pageable pageable);
+
+    // Page suivante (keyset, projection) entre deux dates
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + LIST_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(RESPONSE_SELECT + "WHERE e.userId = :userId " +
+            "AND e.expenseDate BETWEEN :startDate AND :endDate " +
+            "AND (e.expenseDate < :cursorDate OR (e.expenseDate = :cursorDate AND e.id < :cursorId)) " +
+            "ORDER BY e.expenseDate DESC, e.id DESC")
+    List<ExpenseResponse> findPageBetweenAfter(@Param("userId") Long userId,
+                                               @Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate,
+                                               @Param("cursorDate") LocalDate cursorDate,
+                                               @Param("cursorId") Long cursorId,
+                                               Pageable pageable);
+
+    // Flux (curseur JDBC) de toutes les dépenses d'un utilisateur, à consommer dans une transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Expense> streamByUserIdOrderByExpenseDateDescIdDesc(Long userId);
+
+    // Flux (curseur JDBC) des dépenses d'un utilisateur entre deux dates
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Expense> streamByUserIdAndExpenseDateBetweenOrderByExpenseDateDescIdDesc(
+            Long userId, LocalDate startDate, LocalDate endDate);
+
+    // Somme par catégorie des dépenses d'un utilisateur
+    @Query("SELECT e.category AS category, SUM(e.amount) AS totalAmount, COUNT(e) AS expenseCount " +
+            "FROM Expense e WHERE e.userId = :userId " +
+            "GROUP BY e.category ORDER BY e.category")
+    List<CategoryTotal> sumByCategory(@Param("userId") Long userId);
+
+    // Somme par catégorie des dépenses d'un utilisateur entre deux dates
+    @Query("SELECT e.category AS category, SUM(e.amount) AS totalAmount, COUNT(e) AS expenseCount " +
+            "FROM Expense e WHERE e.userId = :userId AND e.expenseDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY e.category ORDER BY e.category")
+    List<CategoryTotal> sumByCategoryBetween(@Param("userId") Long userId,
+                                             @Param("startDate") LocalDate startDate,
+                                             @Param("endDate") LocalDate endDate);
+
+    // Somme par mois des dépenses d'un utilisateur
+    @Query("SELECT EXTRACT(YEAR FROM e.expenseDate) * 100 + EXTRACT(MONTH FROM e.expenseDate) AS yearMonth, " +
+            "SUM(e.amount) AS totalAmount, COUNT(e) AS expenseCount " +
+            "FROM Expense e WHERE e.userId = :userId " +
+            "GROUP BY EXTRACT(YEAR FROM e.expenseDate) * 100 + EXTRACT(MONTH FROM e.expenseDate) " +
+            "ORDER BY yearMonth DESC")
+    List<MonthTotal> sumByMonth(@Param("userId") Long userId);
+
+    // Somme par mois des dépenses d'un utilisateur entre deux dates
+    @Query("SELECT EXTRACT(YEAR FROM e.expenseDate) * 100 + EXTRACT(MONTH FROM e.expenseDate) AS yearMonth, " +
+            "SUM(e.amount) AS totalAmount, COUNT(e) AS expenseCount " +
+            "FROM Expense e WHERE e.userId = :userId AND e.expenseDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY EXTRACT(YEAR FROM e.expenseDate) * 100 + EXTRACT(MONTH FROM e.expenseDate) " +
+            "ORDER BY yearMonth DESC")
+    List<MonthTotal> sumByMonthBetween(@Param("userId") Long userId,
+                                       @Param("startDate") LocalDate startDate,
+                                       @Param("endDate") LocalDate endDate);
+
+    // Buckets (mois, catégorie) d'un utilisateur, recalculés depuis la table (vérification du rollup)
+    @Query("SELECT EXTRACT(YEAR FROM e.expenseDate) * 100 + EXTRACT(MONTH FROM e.expenseDate) AS yearMonth, " +
+            "e.category AS category, SUM(e.amount) AS totalAmount, COUNT(e) AS expenseCount " +
+            "FROM Expense e WHERE e.userId = :userId " +
+            "GROUP BY EXTRACT(YEAR FROM e.expenseDate) * 100 + EXTRACT(MONTH FROM e.expenseDate), e.category")
+    List<RollupBucket> sumByMonthAndCategory(@Param("userId") Long userId);
 
     // Trouver une dépense par ID et utilisateur (pour sécurité)
     @Query("SELECT e FROM Expense e WHERE e.id = :expenseId AND e.userId = :userId")
     Expense findByIdAndUserId(@Param("expenseId") Long expenseId, @Param("userId") Long userId);
 
-    // Supprimer une dépense d'un utilisateur spécifique
-    void deleteByIdAndUserId(Long expenseId, Long userId);
+    // Nouvelle version des dépenses (après incrementExpenseVersion) et dépense visée, en une lecture
+    @Query(value = "SELECT u.expense_version AS expenseVersion, e.id AS expenseId, e.created_at AS createdAt " +
+            "FROM users u LEFT JOIN expenses e ON e.id = :expenseId AND e.user_id = u.id " +
+            "WHERE u.id = :userId", nativeQuery = true)
+    ExpenseWriteState findWriteState(@Param("userId") Long userId, @Param("expenseId") Long expenseId);
+
+    // Modifier une dépense d'un utilisateur en une instruction (0 : absente ou d'un autre utilisateur)
+    @Modifying
+    @Query("UPDATE Expense e SET e.description = :description, e.amount = :amount, e.category = :category, " +
+            "e.expenseDate = :expenseDate, e.updatedAt = :updatedAt, e.changeVersion = :changeVersion " +
+            "WHERE e.id = :expenseId AND e.userId = :userId")
+    int updateByIdAndUserId(@Param("expenseId") Long expenseId,
+                            @Param("userId") Long userId,
+                            @Param("description") String description,
+                            @Param("amount") BigDecimal amount,
+                            @Param("category") ExpenseCategory category,
+                            @Param("expenseDate") LocalDate expenseDate,
+                            @Param("updatedAt") LocalDateTime updatedAt,
+                            @Param("changeVersion") long changeVersion);
+
+    // Supprimer une dépense d'un utilisateur en une instruction (0 : absente ou d'un autre utilisateur)
+    @Modifying
+    @Query("DELETE FROM Expense e WHERE e.id = :expenseId AND e.userId = :userId")
+    int deleteByIdAndUserId(@Param("expenseId") Long expenseId, @Param("userId") Long userId);
 }
\ No newline at end of file
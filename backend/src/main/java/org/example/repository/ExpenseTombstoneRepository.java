@@ -0,0 +1,18 @@
+package org.example.repository;
+
+import org.example.entity.ExpenseTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ExpenseTombstoneRepository extends JpaRepository<ExpenseTombstone, Long> {
+
+    // Identifiants des dépenses supprimées après le watermark
+    @Query("SELECT t.expenseId FROM ExpenseTombstone t " +
+            "WHERE t.userId = :userId AND t.changeVersion > :since ORDER BY t.changeVersion")
+    List<Long> findDeletedIdsSince(@Param("userId") Long userId, @Param("since") long since);
+}
@@ -0,0 +1,17 @@
+package org.example.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection : état lu au début d'une modification ou suppression de dépense
+ */
+public interface ExpenseWriteState {
+
+    // Version des dépenses de l'utilisateur, déjà incrémentée par la transaction
+    Long getExpenseVersion();
+
+    // null : dépense absente ou d'un autre utilisateur
+    Long getExpenseId();
+
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,16 @@
+package org.example.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection : somme et nombre de dépenses pour un mois
+ */
+public interface MonthTotal {
+
+    // Mois au format numérique yyyymm
+    Integer getYearMonth();
+
+    BigDecimal getTotalAmount();
+
+    Long getExpenseCount();
+}
@@ -0,0 +1,19 @@
+package org.example.repository;
+
+import org.example.entity.ExpenseCategory;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection : bucket (mois, catégorie) recalculé depuis la table EXPENSES
+ */
+public interface RollupBucket {
+
+    Integer getYearMonth();
+
+    ExpenseCategory getCategory();
+
+    BigDecimal getTotalAmount();
+
+    Long getExpenseCount();
+}
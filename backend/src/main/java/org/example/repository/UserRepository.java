@@ -1,13 +1,19 @@
 package org.example.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.entity.User;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
     // Méthode pour trouver un utilisateur par email
     Optional<User> findByEmail(String email);
@@ -15,9 +21,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Méthode pour trouver un utilisateur par username
     Optional<User> findByUsername(String username);
 
-    // Méthode pour vérifier si un email existe déjà
-    boolean existsByEmail(String email);
+    // Version courante des dépenses d'un utilisateur (lecture par clé primaire)
+    @Query(value = "SELECT expense_version FROM users WHERE id = :userId", nativeQuery = true)
+    Long findExpenseVersion(@Param("userId") Long userId);
 
-    // Méthode pour vérifier si un username existe déjà
-    boolean existsByUsername(String username);
+    // Incrémenter la version des dépenses, dans la transaction de l'écriture.
+    // Espace de requête dédié : sans lui, Hibernate viderait tout le cache de second niveau
+    // à chaque écriture de dépense (la colonne n'est pas mappée sur User)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users_expense_version"))
+    @Query(value = "UPDATE users SET expense_version = expense_version + 1 WHERE id = :userId", nativeQuery = true)
+    int incrementExpenseVersion(@Param("userId") Long userId);
+
+    // Verrouiller la ligne de l'utilisateur jusqu'au commit, sans incrémenter la version :
+    // attend les écritures de dépenses en cours et bloque les suivantes
+    @Query(value = "SELECT id FROM users WHERE id = :userId FOR UPDATE", nativeQuery = true)
+    Long lockById(@Param("userId") Long userId);
 }
\ No newline at end of file
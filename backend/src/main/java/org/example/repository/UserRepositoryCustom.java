@@ -0,0 +1,22 @@
+package org.example.repository;
+
+import org.example.entity.User;
+
+/**
+ * Accès de l'inscription et de la connexion, implémentés par UserRepositoryImpl
+ */
+public interface UserRepositoryCustom {
+
+    // Trouver un utilisateur par email via le cache natural-id puis le cache de l'entité,
+    // avec l'EntityManager partagé (transaction ou open-in-view en cours)
+    User findByNaturalEmail(String email);
+
+    // Insérer l'utilisateur (identifiant attribué par le générateur de l'entité).
+    // Retourne null si l'utilisateur est créé, sinon la contrainte d'unicité violée
+    // (à défaut le message d'erreur), sans lever d'exception.
+    String insertUnlessDuplicate(User user);
+
+    // Remplacer le hash du mot de passe d'un utilisateur (recalcul à la connexion), en un UPDATE :
+    // l'utilisateur est lu dans le contexte courant ou le cache de second niveau, mis à jour au commit
+    void updatePasswordHash(Long userId, String passwordHash);
+}
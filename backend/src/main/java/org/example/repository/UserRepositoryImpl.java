@@ -0,0 +1,80 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.entity.User;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * INSERT de l'inscription exécuté en JDBC sur la connexion de la transaction.
+ *
+ * Un email ou un username déjà pris est une issue normale de l'inscription : passée par
+ * Hibernate, la violation serait journalisée en ERROR avec la pile (HHH100501,
+ * SqlExceptionHelper) avant d'être traduite. Ici elle est reconnue et retournée ;
+ * seules les autres erreurs remontent par Hibernate.
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    // Violation de contrainte d'unicité : ORA-00001 (Oracle), SQLSTATE 23505 (H2)
+    private static final int ORACLE_UNIQUE_VIOLATION = 1;
+    private static final String UNIQUE_VIOLATION_STATE = "23505";
+
+    private static final String INSERT = "INSERT INTO users (id, username, email, password_hash, created_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public User findByNaturalEmail(String email) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).load(email);
+    }
+
+    @Override
+    @Transactional
+    public String insertUnlessDuplicate(User user) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        // Même allocation que persist (pooled-lo sur USER_ID_SEQ)
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getFactory()
+                .getMappingMetamodel().getEntityDescriptor(User.class).getGenerator();
+        user.setId((Long) generator.generate(session, user, null, EventType.INSERT));
+
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                statement.setLong(1, user.getId());
+                statement.setString(2, user.getUsername());
+                statement.setString(3, user.getEmail());
+                statement.setString(4, user.getPasswordHash());
+                statement.setTimestamp(5, Timestamp.valueOf(user.getCreatedAt()));
+                statement.executeUpdate();
+                return null;
+            } catch (SQLException e) {
+                if (e.getErrorCode() != ORACLE_UNIQUE_VIOLATION && !UNIQUE_VIOLATION_STATE.equals(e.getSQLState())) {
+                    throw e;
+                }
+                String constraint = session.getJdbcServices().getDialect()
+                        .getViolatedConstraintNameExtractor().extractConstraintName(e);
+                return constraint != null ? constraint : String.valueOf(e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public void updatePasswordHash(Long userId, String passwordHash) {
+        // Instance déjà managée avec open-in-view, sinon lue dans le cache de second niveau
+        User user = entityManager.find(User.class, userId);
+        if (user != null) {
+            user.setPasswordHash(passwordHash);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.security;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Résout les paramètres annotés @AuthenticatedUser à partir de l'attribut posé par l'intercepteur
+ */
+@Component
+public class AuthenticatedUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(AuthenticatedUser.class)
+                && Long.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object userId = webRequest.getAttribute(JwtAuthenticationInterceptor.USER_ID_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (userId == null) {
+            throw new IllegalStateException("No authenticated user for this request");
+        }
+        return userId;
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.dto.MessageResponse;
+import org.example.service.JwtService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Vérifie le token JWT une seule fois par requête, avant le contrôleur,
+ * la lecture du corps JSON et l'ouverture de toute transaction.
+ */
+@Component
+public class JwtAuthenticationInterceptor implements HandlerInterceptor {
+
+    // Attribut de requête portant l'ID de l'utilisateur authentifié
+    public static final String USER_ID_ATTRIBUTE = JwtAuthenticationInterceptor.class.getName() + ".userId";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+    private final ObjectMapper objectMapper;
+    private final Timer authTimer;
+    private final Counter missingTokenCounter;
+    private final Counter invalidTokenCounter;
+
+    @Autowired
+    public JwtAuthenticationInterceptor(JwtService jwtService, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.objectMapper = objectMapper;
+        this.authTimer = Timer.builder("auth.latency")
+                .description("Time spent verifying the bearer token")
+                .register(meterRegistry);
+        this.missingTokenCounter = Counter.builder("auth.rejections")
+                .description("Requests rejected by the authentication interceptor")
+                .tag("reason", "missing_token")
+                .register(meterRegistry);
+        this.invalidTokenCounter = Counter.builder("auth.rejections")
+                .description("Requests rejected by the authentication interceptor")
+                .tag("reason", "invalid_token")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        // Déjà authentifiée (re-dispatch asynchrone)
+        if (request.getAttribute(USER_ID_ATTRIBUTE) != null) {
+            return true;
+        }
+
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            missingTokenCounter.increment();
+            reject(response);
+            return false;
+        }
+
+        Timer.Sample sample = Timer.start();
+        Long userId;
+        try {
+            userId = jwtService.getUserIdFromToken(authHeader.substring(BEARER_PREFIX.length()));
+        } catch (Exception e) {
+            userId = null;
+        } finally {
+            sample.stop(authTimer);
+        }
+
+        if (userId == null) {
+            invalidTokenCounter.increment();
+            reject(response);
+            return false;
+        }
+
+        request.setAttribute(USER_ID_ATTRIBUTE, userId);
+        return true;
+    }
+
+    private void reject(HttpServletResponse response) throws Exception {
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new MessageResponse(false, "Invalid or expired token"));
+    }
+}
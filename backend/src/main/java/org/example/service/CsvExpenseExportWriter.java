@@ -0,0 +1,83 @@
+package org.example.service;
+
+import org.example.entity.Expense;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Export CSV avec les colonnes de l'import (description,amount,category,expense_date) :
+ * un fichier exporté peut être réimporté tel quel via /api/expenses/batch.
+ * Un texte qui commence comme une formule est préfixé d'une apostrophe (injection CSV :
+ * Excel et LibreOffice l'évalueraient à l'ouverture) ; l'import retire ce préfixe.
+ */
+public class CsvExpenseExportWriter implements ExpenseExportWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Premiers caractères qui font interpréter une cellule comme une formule
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+    private static final char FORMULA_ESCAPE = '\'';
+
+    private final Writer writer;
+
+    public CsvExpenseExportWriter(OutputStream outputStream) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        // BOM : Excel ouvre le fichier en UTF-8 (l'import l'ignore)
+        writer.write('\uFEFF');
+        writer.write("description,amount,category,expense_date\r\n");
+    }
+
+    @Override
+    public void write(Expense expense) throws IOException {
+        writeField(expense.getDescription());
+        writer.write(',');
+        writer.write(expense.getAmount().toPlainString());
+        writer.write(',');
+        writeField(expense.getCategory().getDisplayName());
+        writer.write(',');
+        writer.write(expense.getExpenseDate().toString());
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Texte neutralisé s'il commence comme une formule, entre guillemets (guillemets doublés)
+     * s'il contient un séparateur
+     */
+    private void writeField(String value) throws IOException {
+        if (startsLikeFormula(value, 0)) {
+            value = FORMULA_ESCAPE + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /**
+     * Retirer l'apostrophe ajoutée à l'export devant un texte qui commence comme une formule
+     */
+    static String unescapeFormula(String value) {
+        if (value != null && !value.isEmpty() && value.charAt(0) == FORMULA_ESCAPE && startsLikeFormula(value, 1)) {
+            return value.substring(1);
+        }
+        return value;
+    }
+
+    private static boolean startsLikeFormula(String value, int index) {
+        return value.length() > index && FORMULA_PREFIXES.indexOf(value.charAt(index)) >= 0;
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.service;
+
+import java.time.LocalDate;
+
+/**
+ * Intervalle de dates inclusif utilisé par les filtres de dépenses
+ */
+public record DateRange(LocalDate startDate, LocalDate endDate) {
+
+    /**
+     * Indique si la date appartient à l'intervalle (bornes incluses)
+     */
+    public boolean contains(LocalDate date) {
+        return !date.isBefore(startDate) && !date.isAfter(endDate);
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.service;
+
+import org.example.entity.Expense;
+
+/**
+ * Événement publié par ExpenseService à chaque écriture, diffusé après commit
+ * aux abonnés SSE de l'utilisateur.
+ *
+ * @param expense la dépense créée ou modifiée (null pour une suppression ou un import)
+ * @param version version des dépenses de l'utilisateur après l'écriture
+ * @param count   nombre de dépenses importées (IMPORTED uniquement)
+ */
+public record ExpenseChangedEvent(Long userId, Type type, Long expenseId, Expense expense, long version, int count) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, IMPORTED
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.service;
+
+import org.example.entity.Expense;
+
+import java.util.List;
+
+/**
+ * Changements des dépenses d'un utilisateur depuis un watermark
+ */
+public record ExpenseChanges(List<Expense> changed, List<Long> deletedIds, long watermark) {
+}
@@ -0,0 +1,211 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.example.dto.ExpenseResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Diffusion des changements de dépenses en Server-Sent Events, par utilisateur.
+ * Chaque abonné a une file bornée vidée par un thread virtuel : un client lent
+ * ne bloque ni l'écriture qui publie l'événement ni les autres abonnés, et il est
+ * déconnecté lorsque sa file déborde (il se resynchronise via /changes).
+ * Seul le thread d'envoi de l'abonné appelle l'emitter.
+ */
+@Service
+public class ExpenseEventService {
+
+    private final int bufferSize;
+    private final long idleTimeoutMillis;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService sender;
+    private final Counter droppedCounter;
+
+    @Autowired
+    public ExpenseEventService(@Value("${expense.events.buffer-size:100}") int bufferSize,
+                               @Value("${expense.events.idle-timeout-ms:1800000}") long idleTimeoutMillis,
+                               MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+
+        // Un thread virtuel par vidage : un envoi bloqué sur un socket saturé n'occupe que le sien.
+        // L'écriture bloquante de Tomcat attend par Object.wait (épinglage compensé par la JVM sous
+        // le synchronized de ResponseBodyEmitter) et expire après server.tomcat.connection-timeout.
+        this.sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("expense-events-", 0).factory());
+
+        this.droppedCounter = Counter.builder("expense.events.dropped")
+                .description("SSE subscribers disconnected because their buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("expense.events.subscribers", subscribers,
+                        map -> map.values().stream().mapToInt(Set::size).sum())
+                .description("Open SSE subscriptions")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ouvrir un flux SSE pour un utilisateur (fermé après expense.events.idle-timeout-ms
+     * sans changement, le client se reconnecte alors automatiquement)
+     */
+    public SseEmitter subscribe(Long userId, long version) {
+        // Pas de timeout asynchrone : la fermeture est décidée par la détection d'inactivité
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        // Version courante : point de reprise pour /changes en cas de reconnexion
+        subscriber.offer(SseEmitter.event()
+                .id(String.valueOf(version))
+                .name("connected")
+                .data(Map.of("version", version), MediaType.APPLICATION_JSON));
+        return subscriber.emitter;
+    }
+
+    /**
+     * Diffuser un changement aux abonnés de l'utilisateur, une fois la transaction validée
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        Set<Subscriber> userSubscribers = subscribers.get(event.userId());
+        if (userSubscribers == null || userSubscribers.isEmpty()) {
+            return;
+        }
+
+        Object data = switch (event.type()) {
+            case CREATED, UPDATED -> ExpenseResponse.from(event.expense());
+            case DELETED -> Map.of("id", event.expenseId());
+            case IMPORTED -> Map.of("count", event.count());
+        };
+        String name = event.type().name().toLowerCase();
+
+        for (Subscriber subscriber : userSubscribers) {
+            subscriber.lastEventAt = System.currentTimeMillis();
+            subscriber.offer(SseEmitter.event()
+                    .id(String.valueOf(event.version()))
+                    .name(name)
+                    .data(data, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * Heartbeat : garde les connexions ouvertes à travers les proxys et détecte les clients partis ;
+     * ferme les flux sans changement depuis expense.events.idle-timeout-ms
+     */
+    @Scheduled(fixedDelayString = "${expense.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        long idleSince = System.currentTimeMillis() - idleTimeoutMillis;
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                if (subscriber.lastEventAt < idleSince) {
+                    subscriber.close();
+                } else {
+                    subscriber.offer(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(Subscriber::close));
+        sender.shutdown();
+    }
+
+    /**
+     * Abonné : file d'événements bornée, vidée par au plus une tâche d'envoi à la fois.
+     * Les threads qui publient ne touchent jamais l'emitter, dont send et complete partagent
+     * le même moniteur : la fermeture est signalée puis exécutée par la tâche d'envoi.
+     */
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile long lastEventAt = System.currentTimeMillis();
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                // Consommateur trop lent : déconnexion plutôt que mémoire non bornée
+                droppedCounter.increment();
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                unsubscribe(this);
+                scheduleDrain();
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                do {
+                    SseEmitter.SseEventBuilder event;
+                    while (!closed.get() && (event = queue.poll()) != null) {
+                        emitter.send(event);
+                    }
+                    if (closed.get()) {
+                        // draining reste levé : plus aucune tâche d'envoi pour cet abonné
+                        queue.clear();
+                        emitter.complete();
+                        return;
+                    }
+                    draining.set(false);
+                    // Un événement ou une fermeture a pu arriver entre le dernier poll et la libération
+                } while ((!queue.isEmpty() || closed.get()) && draining.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                // Client déconnecté ou flux déjà terminé
+                closed.set(true);
+                unsubscribe(this);
+                queue.clear();
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
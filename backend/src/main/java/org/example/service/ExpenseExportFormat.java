@@ -0,0 +1,53 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Formats d'export des dépenses (GET /api/expenses/export?format=)
+ */
+public enum ExpenseExportFormat {
+    CSV("text/csv", "csv"),
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String contentType;
+    private final String extension;
+
+    ExpenseExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Ouvrir un writer de ce format sur le flux de sortie
+     */
+    public ExpenseExportWriter open(OutputStream outputStream) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvExpenseExportWriter(outputStream);
+            case XLSX -> new XlsxExpenseExportWriter(outputStream);
+        };
+    }
+
+    /**
+     * Convertir un nom de format (insensible à la casse, csv par défaut)
+     */
+    public static ExpenseExportFormat parse(String format) {
+        if (format == null || format.isBlank()) {
+            return CSV;
+        }
+        for (ExpenseExportFormat candidate : values()) {
+            if (candidate.extension.equalsIgnoreCase(format.trim())) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Invalid format. Valid formats: csv, xlsx");
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.service;
+
+import org.example.entity.Expense;
+
+import java.io.IOException;
+
+/**
+ * Écriture ligne à ligne d'un export de dépenses : rien n'est conservé entre deux lignes,
+ * la mémoire ne dépend pas du nombre de dépenses exportées
+ */
+public interface ExpenseExportWriter {
+
+    void write(Expense expense) throws IOException;
+
+    /**
+     * Terminer le document et vider les tampons (le flux sous-jacent reste ouvert)
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,221 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.ExpenseRequest;
+import org.example.entity.Expense;
+import org.example.entity.ExpenseCategory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Import en masse de dépenses (tableau JSON ou CSV), lu en flux et inséré par lots
+ */
+@Service
+public class ExpenseImportService {
+
+    // Colonnes attendues dans l'en-tête CSV
+    private static final List<String> CSV_COLUMNS = List.of("description", "amount", "category", "expense_date");
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Nombre de lignes insérées par transaction
+    @Value("${expense.import.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Importer un tableau JSON d'objets { description, amount, category, expense_date }
+     */
+    public ImportReport importJson(Long userId, InputStream body) throws IOException {
+        Batch batch = new Batch(userId);
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of expenses");
+            }
+
+            int row = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                row++;
+                // Lecture de l'objet en arbre puis conversion : une ligne mal typée ne casse pas le flux
+                JsonNode node = objectMapper.readTree(parser);
+                ExpenseRequest request;
+                try {
+                    request = objectMapper.treeToValue(node, ExpenseRequest.class);
+                } catch (IOException e) {
+                    batch.reject(row, "Invalid row format");
+                    continue;
+                }
+                batch.add(row, request.description(), request.amount(), request.category(), request.expenseDate());
+            }
+        }
+        return batch.finish();
+    }
+
+    /**
+     * Importer un CSV avec en-tête description,amount,category,expense_date
+     * (description préfixée d'une apostrophe par l'export si elle commence comme une formule)
+     */
+    public ImportReport importCsv(Long userId, InputStream body) throws IOException {
+        Batch batch = new Batch(userId);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                return batch.finish();
+            }
+            int[] columns = mapColumns(parseCsvLine(stripBom(header)));
+
+            int row = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                row++;
+
+                List<String> fields = parseCsvLine(line);
+                String description = CsvExpenseExportWriter.unescapeFormula(field(fields, columns[0]));
+                String amountStr = field(fields, columns[1]);
+                String category = field(fields, columns[2]);
+                String dateStr = field(fields, columns[3]);
+
+                BigDecimal amount;
+                LocalDate expenseDate;
+                try {
+                    amount = amountStr == null || amountStr.isBlank() ? null : new BigDecimal(amountStr.trim());
+                } catch (NumberFormatException e) {
+                    batch.reject(row, "Invalid amount format");
+                    continue;
+                }
+                try {
+                    expenseDate = dateStr == null || dateStr.isBlank() ? null : LocalDate.parse(dateStr.trim());
+                } catch (DateTimeParseException e) {
+                    batch.reject(row, "Invalid date format. Use YYYY-MM-DD");
+                    continue;
+                }
+                batch.add(row, description, amount, category, expenseDate);
+            }
+        }
+        return batch.finish();
+    }
+
+    private int[] mapColumns(List<String> header) {
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+            columns[i] = header.indexOf(CSV_COLUMNS.get(i));
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("Missing CSV column: " + CSV_COLUMNS.get(i));
+            }
+        }
+        return columns;
+    }
+
+    private static String stripBom(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    /**
+     * Découpe une ligne CSV (séparateur virgule, champs éventuellement entre guillemets)
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    /**
+     * Accumule les lignes valides et les insère par lots de chunkSize
+     */
+    private class Batch {
+
+        private final Long userId;
+        private final List<Expense> pending = new ArrayList<>();
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+        private int received;
+        private int imported;
+
+        Batch(Long userId) {
+            this.userId = userId;
+        }
+
+        void add(int row, String description, BigDecimal amount, String categoryStr, LocalDate expenseDate) {
+            received++;
+            try {
+                // Mêmes règles que la création unitaire
+                ExpenseCategory category = categoryStr == null ? null : expenseService.parseCategory(categoryStr);
+                expenseService.validateExpense(description, amount, category, expenseDate);
+                pending.add(new Expense(userId, description.trim(), amount, category, expenseDate));
+            } catch (RuntimeException e) {
+                errors.add(new ImportReport.RowError(row, e.getMessage()));
+                return;
+            }
+
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(int row, String message) {
+            received++;
+            errors.add(new ImportReport.RowError(row, message));
+        }
+
+        void flush() {
+            if (!pending.isEmpty()) {
+                imported += expenseService.insertBatch(userId, new ArrayList<>(pending));
+                pending.clear();
+            }
+        }
+
+        ImportReport finish() {
+            flush();
+            return new ImportReport(received, imported, errors);
+        }
+    }
+}
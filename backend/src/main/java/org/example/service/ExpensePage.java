@@ -0,0 +1,11 @@
+package org.example.service;
+
+import org.example.dto.ExpenseResponse;
+
+import java.util.List;
+
+/**
+ * Page de dépenses et curseur vers la page suivante (null s'il n'y en a plus)
+ */
+public record ExpensePage(List<ExpenseResponse> expenses, String nextCursor) {
+}
@@ -0,0 +1,35 @@
+package org.example.service;
+
+import org.example.repository.ExpenseMonthlyRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job de réconciliation : vérifie le rollup de chaque utilisateur et reconstruit ceux qui divergent
+ */
+@Component
+public class ExpenseRollupReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseRollupReconciliationJob.class);
+
+    @Autowired
+    private ExpenseRollupService rollupService;
+
+    @Autowired
+    private ExpenseMonthlyRollupRepository rollupRepository;
+
+    @Scheduled(cron = "${rollup.reconcile.cron:0 30 3 * * *}")
+    public void reconcileAll() {
+        int rebuilt = 0;
+        for (Long userId : rollupRepository.findAllUserIds()) {
+            if (rollupService.reconcile(userId)) {
+                log.warn("Expense rollup out of sync for user {}, rebuilt", userId);
+                rebuilt++;
+            }
+        }
+        log.info("Expense rollup reconciliation done, {} user(s) rebuilt", rebuilt);
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.service;
+
+import org.example.entity.Expense;
+import org.example.entity.ExpenseCategory;
+import org.example.entity.ExpenseMonthlyRollup;
+import org.example.entity.ExpenseMonthlyRollupId;
+import org.example.repository.ExpenseMonthlyRollupRepository;
+import org.example.repository.ExpenseRepository;
+import org.example.repository.RollupBucket;
+import org.example.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ExpenseRollupService {
+
+    @Autowired
+    private ExpenseMonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Ajouter une dépense à son bucket (mois, catégorie).
+     * Doit être appelé dans la transaction qui écrit la dépense.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Long userId, LocalDate expenseDate, ExpenseCategory category, BigDecimal amount) {
+        rollupRepository.applyDelta(userId, ExpenseMonthlyRollup.yearMonthOf(expenseDate), category.getCode(), amount, 1);
+    }
+
+    /**
+     * Retirer une dépense de son bucket, d'après la ligne encore en base.
+     * Doit être appelé dans la transaction qui supprime la dépense, avant le DELETE.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(Long userId, Long expenseId) {
+        rollupRepository.removeExpense(expenseId, userId);
+    }
+
+    /**
+     * Ajouter un lot de dépenses : un seul delta par bucket (mois, catégorie)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addAll(Long userId, List<Expense> expenses) {
+        Map<ExpenseMonthlyRollupId, BigDecimal> totals = new HashMap<>();
+        Map<ExpenseMonthlyRollupId, Long> counts = new HashMap<>();
+        for (Expense expense : expenses) {
+            ExpenseMonthlyRollupId key = new ExpenseMonthlyRollupId(userId,
+                    ExpenseMonthlyRollup.yearMonthOf(expense.getExpenseDate()), expense.getCategory());
+            totals.merge(key, expense.getAmount(), BigDecimal::add);
+            counts.merge(key, 1L, Long::sum);
+        }
+
+        for (Map.Entry<ExpenseMonthlyRollupId, BigDecimal> bucket : totals.entrySet()) {
+            ExpenseMonthlyRollupId key = bucket.getKey();
+            rollupRepository.applyDelta(userId, key.getYearMonth(), key.getCategory().getCode(),
+                    bucket.getValue(), counts.get(key));
+        }
+    }
+
+    /**
+     * Déplacer le montant d'une dépense modifiée : ancien bucket, lu dans la ligne encore
+     * en base, vers le nouveau bucket, en une seule instruction (un seul delta si le bucket
+     * ne change pas). Doit être appelé dans la transaction qui modifie la dépense, avant l'UPDATE.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void move(Long userId, Long expenseId, LocalDate newDate, ExpenseCategory newCategory, BigDecimal newAmount) {
+        rollupRepository.moveExpense(expenseId, userId, ExpenseMonthlyRollup.yearMonthOf(newDate),
+                newCategory.getCode(), newAmount);
+    }
+
+    /**
+     * Reconstruire entièrement le rollup d'un utilisateur depuis la table EXPENSES.
+     * La ligne users est verrouillée d'abord, comme par chaque écriture de dépense
+     * (incrémentation de la version) : les écritures validées avant sont lues par
+     * l'INSERT ... SELECT, les suivantes attendent le commit et appliquent leur delta après.
+     */
+    @Transactional
+    public void rebuild(Long userId) {
+        userRepository.lockById(userId);
+        rollupRepository.deleteByUserId(userId);
+        rollupRepository.rebuildForUser(userId);
+    }
+
+    /**
+     * Vérifier le rollup d'un utilisateur et le reconstruire s'il diverge, sous le verrou
+     * de la ligne users : aucune écriture ne s'intercale entre la lecture des deux tables.
+     * Retourne true si le rollup a été reconstruit.
+     */
+    @Transactional
+    public boolean reconcile(Long userId) {
+        userRepository.lockById(userId);
+        if (verify(userId)) {
+            return false;
+        }
+        rebuild(userId);
+        return true;
+    }
+
+    /**
+     * Vérifier que le rollup d'un utilisateur correspond à la table EXPENSES
+     */
+    @Transactional(readOnly = true)
+    public boolean verify(Long userId) {
+        Map<String, RollupBucket> expected = new HashMap<>();
+        for (RollupBucket bucket : expenseRepository.sumByMonthAndCategory(userId)) {
+            expected.put(bucket.getYearMonth() + "|" + bucket.getCategory(), bucket);
+        }
+
+        List<ExpenseMonthlyRollup> actual = rollupRepository.findByUserId(userId);
+        int nonEmptyBuckets = 0;
+        for (ExpenseMonthlyRollup rollup : actual) {
+            // Les buckets vidés par des suppressions restent à zéro
+            if (rollup.getExpenseCount() == 0 && rollup.getTotalAmount().signum() == 0) {
+                continue;
+            }
+            nonEmptyBuckets++;
+
+            RollupBucket bucket = expected.get(rollup.getYearMonth() + "|" + rollup.getCategory());
+            if (bucket == null
+                    || !bucket.getExpenseCount().equals(rollup.getExpenseCount())
+                    || bucket.getTotalAmount().compareTo(rollup.getTotalAmount()) != 0) {
+                return false;
+            }
+        }
+
+        return nonEmptyBuckets == expected.size();
+    }
+}
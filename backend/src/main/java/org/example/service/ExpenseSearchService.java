@@ -0,0 +1,297 @@
+package org.example.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.example.entity.Expense;
+import org.example.entity.ExpenseCategory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Recherche plein texte dans les descriptions des dépenses : index inversé en mémoire,
+ * un shard par utilisateur construit depuis la table à sa première recherche.
+ * Les termes sont repliés (minuscules, sans accents ni ligatures) et chaque terme de la
+ * requête est cherché comme préfixe. Les écritures sont appliquées après commit ; un écart
+ * avec la version des dépenses de l'utilisateur (import, événement reçu dans le désordre)
+ * est rattrapé depuis la table avant de répondre.
+ */
+@Service
+public class ExpenseSearchService {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    // Même ordre que les listes : date décroissante puis id décroissant
+    private static final Comparator<Expense> NEWEST_FIRST = Comparator
+            .comparing(Expense::getExpenseDate)
+            .thenComparing(Expense::getId)
+            .reversed();
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Shards bornés par le nombre total de dépenses indexées (poids recalculé à chaque
+    // croissance ou réduction en place, voir reweigh), libérés après inactivité
+    @Value("${expense.search.max-expenses:500000}")
+    private long maxExpenses;
+
+    @Value("${expense.search.idle-seconds:1800}")
+    private long idleSeconds;
+
+    private Cache<Long, Shard> shards;
+    private Timer searchTimer;
+
+    @PostConstruct
+    void initShards() {
+        shards = Caffeine.newBuilder()
+                .maximumWeight(maxExpenses)
+                .weigher((Long userId, Shard shard) -> shard.size() + 1)
+                .expireAfterAccess(Duration.ofSeconds(idleSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, shards, "expense.search");
+        searchTimer = Timer.builder("expense.search.latency")
+                .description("Time spent matching a query against a user's search shard")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rechercher les dépenses dont la description contient tous les termes de la requête
+     * (en préfixe), avec filtres optionnels de catégorie et de dates.
+     *
+     * @param version version courante des dépenses de l'utilisateur : le shard est rattrapé jusqu'à elle
+     */
+    public List<Expense> search(Long userId, long version, String query,
+                                ExpenseCategory category, DateRange range, Integer limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        int size = limit == null
+                ? ExpenseService.DEFAULT_PAGE_SIZE
+                : Math.min(Math.max(limit, 1), ExpenseService.MAX_PAGE_SIZE);
+
+        Shard shard = shard(userId);
+        if (shard.catchUp(userId, version)) {
+            reweigh(userId);
+        }
+        return searchTimer.record(() -> shard.search(terms, category, range, size));
+    }
+
+    /**
+     * Appliquer une écriture au shard de l'utilisateur, s'il est chargé, une fois la transaction validée
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        Shard shard = shards.getIfPresent(event.userId());
+        if (shard != null && shard.apply(event)) {
+            reweigh(event.userId());
+        }
+    }
+
+    /**
+     * Caffeine ne pèse une entrée qu'à son insertion : la remplacer par elle-même après
+     * une modification en place reporte la nouvelle taille du shard dans maximumWeight
+     */
+    private void reweigh(Long userId) {
+        shards.asMap().computeIfPresent(userId, (id, shard) -> shard);
+    }
+
+    private Shard shard(Long userId) {
+        Shard shard = shards.getIfPresent(userId);
+        if (shard != null) {
+            return shard;
+        }
+
+        // Construction hors du verrou du cache (pas de requête JDBC sous un moniteur)
+        Shard built = new Shard(expenseService.getChanges(userId, null));
+        shard = shards.asMap().putIfAbsent(userId, built);
+        return shard == null ? built : shard;
+    }
+
+    /**
+     * Découper un texte en termes repliés : "Visite Médicale – Œil" → [visite, medicale, oeil]
+     */
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .replace("œ", "oe")
+                .replace("æ", "ae");
+        return SEPARATORS.splitAsStream(folded)
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Index d'un utilisateur : dépenses par id et listes d'ids par terme, triées pour la recherche
+     * par préfixe. Le watermark est la version des dépenses déjà reflétée par l'index.
+     */
+    private final class Shard {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Expense> documents = new HashMap<>();
+        private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+        private long watermark;
+
+        private Shard(ExpenseChanges snapshot) {
+            snapshot.changed().forEach(this::upsert);
+            this.watermark = snapshot.watermark();
+        }
+
+        private int size() {
+            return documents.size();
+        }
+
+        /**
+         * Rattraper depuis la table les écritures que l'index n'a pas encore vues
+         *
+         * @return true si le nombre de dépenses indexées a changé
+         */
+        private boolean catchUp(Long userId, long version) {
+            lock.readLock().lock();
+            try {
+                if (watermark >= version) {
+                    return false;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (watermark >= version) {
+                    return false;
+                }
+                int previousSize = size();
+                ExpenseChanges changes = expenseService.getChanges(userId, watermark);
+                changes.changed().forEach(this::upsert);
+                changes.deletedIds().forEach(this::remove);
+                watermark = Math.max(watermark, changes.watermark());
+                return size() != previousSize;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Appliquer un événement s'il suit immédiatement le watermark ; sinon (import sans
+         * les lignes, événement dans le désordre) le prochain rattrapage s'en charge
+         *
+         * @return true si le nombre de dépenses indexées a changé
+         */
+        private boolean apply(ExpenseChangedEvent event) {
+            lock.writeLock().lock();
+            try {
+                if (event.version() != watermark + 1) {
+                    return false;
+                }
+                int previousSize = size();
+                switch (event.type()) {
+                    case CREATED, UPDATED -> upsert(event.expense());
+                    case DELETED -> remove(event.expenseId());
+                    case IMPORTED -> {
+                        return false;
+                    }
+                }
+                watermark = event.version();
+                return size() != previousSize;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private List<Expense> search(List<String> terms, ExpenseCategory category, DateRange range, int limit) {
+            lock.readLock().lock();
+            try {
+                Set<Long> matches = null;
+                for (String term : terms) {
+                    Set<Long> termMatches = new HashSet<>();
+                    for (Set<Long> ids : postings.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+                        termMatches.addAll(ids);
+                    }
+                    if (matches == null) {
+                        matches = termMatches;
+                    } else {
+                        matches.retainAll(termMatches);
+                    }
+                    if (matches.isEmpty()) {
+                        return List.of();
+                    }
+                }
+
+                return matches.stream()
+                        .map(documents::get)
+                        .filter(expense -> category == null || category == expense.getCategory())
+                        .filter(expense -> range == null || range.contains(expense.getExpenseDate()))
+                        .sorted(NEWEST_FIRST)
+                        .limit(limit)
+                        .toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void upsert(Expense expense) {
+            Expense previous = documents.get(expense.getId());
+            if (previous != null) {
+                // Une version plus récente peut déjà venir de la table
+                if (previous.getChangeVersion() > expense.getChangeVersion()) {
+                    return;
+                }
+                unindex(previous);
+                // Une modification ne relit pas la date de création
+                if (expense.getCreatedAt() == null) {
+                    expense.setCreatedAt(previous.getCreatedAt());
+                }
+            }
+
+            documents.put(expense.getId(), expense);
+            for (String term : tokenize(expense.getDescription())) {
+                postings.computeIfAbsent(term, t -> new HashSet<>()).add(expense.getId());
+            }
+        }
+
+        private void remove(Long expenseId) {
+            Expense previous = documents.remove(expenseId);
+            if (previous != null) {
+                unindex(previous);
+            }
+        }
+
+        private void unindex(Expense expense) {
+            for (String term : tokenize(expense.getDescription())) {
+                Set<Long> ids = postings.get(term);
+                if (ids != null && ids.remove(expense.getId()) && ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
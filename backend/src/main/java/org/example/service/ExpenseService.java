@@ -1,29 +1,153 @@
 package org.example.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.dto.ExpenseResponse;
 import org.example.entity.Expense;
 import org.example.entity.ExpenseCategory;
+import org.example.entity.ExpenseTombstone;
+import org.example.repository.CategoryTotal;
+import org.example.repository.ExpenseMonthlyRollupRepository;
 import org.example.repository.ExpenseRepository;
+import org.example.repository.ExpenseTombstoneRepository;
+import org.example.repository.ExpenseWriteState;
+import org.example.repository.MonthTotal;
+import org.example.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ExpenseService {
 
+    // Taille de page par défaut et maximale pour la pagination keyset
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private ExpenseRepository expenseRepository;
 
+    @Autowired
+    private ExpenseMonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private ExpenseRollupService rollupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExpenseTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Cache des listes complètes, une entrée par utilisateur regroupant ses fenêtres de dates
+    // (range null : toutes les dépenses), borné par le nombre total de dépenses en cache
+    @Value("${expense.list-cache.max-expenses:100000}")
+    private long listCacheMaxExpenses;
+
+    @Value("${expense.list-cache.ttl-seconds:300}")
+    private long listCacheTtlSeconds;
+
+    private Cache<Long, UserLists> listCache;
+
+    // Incrémenté à chaque invalidation : une lecture concurrente d'une écriture n'est pas mise en cache
+    private final AtomicLong listGeneration = new AtomicLong();
+
+    /**
+     * Listes en cache d'un utilisateur (valeur immuable, remplacée à chaque modification).
+     * generation : valeur de listGeneration lors de la dernière invalidation de l'utilisateur,
+     * ou du premier chargement mis en cache
+     */
+    private record UserLists(long generation, Map<DateRange, List<ExpenseResponse>> lists) {
+
+        int weight() {
+            return 1 + lists.values().stream().mapToInt(expenses -> expenses.size() + 1).sum();
+        }
+
+        UserLists with(DateRange range, List<ExpenseResponse> expenses) {
+            Map<DateRange, List<ExpenseResponse>> copy = new HashMap<>(lists);
+            copy.put(range, expenses);
+            return new UserLists(generation, copy);
+        }
+
+        // null si plus aucune liste ne reste : une lecture antérieure est alors écartée par listGeneration
+        UserLists without(long invalidation, LocalDate... dates) {
+            Map<DateRange, List<ExpenseResponse>> copy = new HashMap<>(lists);
+            copy.keySet().removeIf(range -> range == null || dates.length == 0
+                    || Arrays.stream(dates).anyMatch(range::contains));
+            return copy.isEmpty() ? null : new UserLists(invalidation, copy);
+        }
+    }
+
+    @PostConstruct
+    void initListCache() {
+        listCache = Caffeine.newBuilder()
+                .maximumWeight(listCacheMaxExpenses)
+                .weigher((Long userId, UserLists lists) -> lists.weight())
+                .expireAfterWrite(Duration.ofSeconds(listCacheTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, listCache, "expense.lists");
+    }
+
     /**
      * Créer une nouvelle dépense
      */
+    @Transactional
     public Expense createExpense(Long userId, String description, BigDecimal amount,
                                  ExpenseCategory category, LocalDate expenseDate) {
 
         // Validations
+        validateExpense(description, amount, category, expenseDate);
+
+        // Création de la dépense
+        Expense expense = new Expense(userId, description.trim(), amount, category, expenseDate);
+        expense.setChangeVersion(nextExpenseVersion(userId));
+
+        Expense saved = expenseRepository.save(expense);
+        rollupService.add(userId, saved.getExpenseDate(), saved.getCategory(), saved.getAmount());
+        invalidateLists(userId, saved.getExpenseDate());
+        eventPublisher.publishEvent(new ExpenseChangedEvent(userId, ExpenseChangedEvent.Type.CREATED,
+                saved.getId(), saved, saved.getChangeVersion(), 1));
+        return saved;
+    }
+
+    /**
+     * Vérifier les champs d'une dépense (création, modification, import)
+     */
+    public void validateExpense(String description, BigDecimal amount,
+                                ExpenseCategory category, LocalDate expenseDate) {
         if (description == null || description.trim().isEmpty()) {
             throw new RuntimeException("Description is required");
         }
@@ -39,11 +163,42 @@ public class ExpenseService {
         if (expenseDate == null) {
             throw new RuntimeException("Expense date is required");
         }
+    }
 
-        // Création de la dépense
-        Expense expense = new Expense(userId, description.trim(), amount, category, expenseDate);
+    /**
+     * Convertir un nom de catégorie (insensible à la casse) en ExpenseCategory
+     */
+    public ExpenseCategory parseCategory(String categoryStr) {
+        if (categoryStr == null || categoryStr.trim().isEmpty()) {
+            throw new RuntimeException("Category is required");
+        }
+
+        ExpenseCategory category = ExpenseCategory.fromName(categoryStr);
+        if (category == null) {
+            throw new RuntimeException("Invalid category. Valid categories: " + ExpenseCategory.VALID_NAMES);
+        }
+        return category;
+    }
+
+    /**
+     * Insérer un lot de dépenses déjà validées en une transaction (batch JDBC)
+     * et appliquer au rollup un delta par bucket plutôt qu'un par ligne.
+     */
+    @Transactional
+    public int insertBatch(Long userId, List<Expense> expenses) {
+        long version = nextExpenseVersion(userId);
+        expenses.forEach(expense -> expense.setChangeVersion(version));
+
+        expenseRepository.saveAll(expenses);
+        rollupService.addAll(userId, expenses);
+        invalidateLists(userId);
+        eventPublisher.publishEvent(new ExpenseChangedEvent(userId, ExpenseChangedEvent.Type.IMPORTED,
+                null, null, version, expenses.size()));
 
-        return expenseRepository.save(expense);
+        // Envoie les INSERT en batch puis libère le contexte de persistance
+        entityManager.flush();
+        entityManager.clear();
+        return expenses.size();
     }
 
     /**
@@ -89,55 +244,279 @@ public class ExpenseService {
     }
 
     /**
-     * Modifier une dépense existante
+     * Traduit un filtre (week, month, 3months, custom) en intervalle de dates.
+     * Retourne null lorsqu'aucun filtre de date ne s'applique.
      */
-    @Transactional
-    public Expense updateExpense(Long userId, Long expenseId, String description,
-                                 BigDecimal amount, ExpenseCategory category, LocalDate expenseDate) {
+    public DateRange resolveFilter(String filter, String startDate, String endDate) {
+        if (filter == null) {
+            return null;
+        }
 
-        // Vérifier que la dépense appartient à l'utilisateur
-        Expense expense = expenseRepository.findByIdAndUserId(expenseId, userId);
-        if (expense == null) {
-            throw new RuntimeException("Expense not found or access denied");
+        LocalDate today = LocalDate.now();
+        switch (filter.toLowerCase()) {
+            case "week":
+                return new DateRange(today.minusWeeks(1), today);
+            case "month":
+                return new DateRange(today.minusMonths(1), today);
+            case "3months":
+                return new DateRange(today.minusMonths(3), today);
+            case "custom":
+                if (startDate == null || endDate == null) {
+                    throw new IllegalArgumentException("Start date and end date are required for custom filter");
+                }
+                return new DateRange(LocalDate.parse(startDate), LocalDate.parse(endDate));
+            default:
+                return null;
         }
+    }
 
-        // Validations (mêmes que pour la création)
-        if (description == null || description.trim().isEmpty()) {
-            throw new RuntimeException("Description is required");
+    /**
+     * Récupérer les dépenses d'un utilisateur (toutes ou sur un intervalle), via le cache des listes.
+     * Les lignes sont projetées directement dans la réponse (transaction en lecture seule ouverte
+     * par le repository, uniquement en cas d'absence du cache).
+     */
+    public List<ExpenseResponse> getExpenses(Long userId, DateRange range) {
+        UserLists cached = listCache.getIfPresent(userId);
+        List<ExpenseResponse> cachedExpenses = cached == null ? null : cached.lists().get(range);
+        if (cachedExpenses != null) {
+            return cachedExpenses;
         }
 
-        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new RuntimeException("Amount must be positive");
+        // Chargement hors du verrou du cache (pas de requête JDBC sous un moniteur)
+        long generation = listGeneration.get();
+        List<ExpenseResponse> expenses = List.copyOf(range == null
+                ? expenseRepository.findResponsesByUserId(userId)
+                : expenseRepository.findResponsesByUserIdBetween(userId, range.startDate(), range.endDate()));
+
+        // Mise en cache écartée si l'utilisateur a été invalidé depuis le début du chargement ;
+        // sans entrée (jamais créée ou évincée), si une invalidation quelconque a eu lieu
+        listCache.asMap().compute(userId, (id, lists) -> {
+            if (lists == null) {
+                return listGeneration.get() == generation
+                        ? new UserLists(generation, Map.of()).with(range, expenses)
+                        : null;
+            }
+            return lists.generation() > generation ? lists : lists.with(range, expenses);
+        });
+        return expenses;
+    }
+
+    /**
+     * Version courante des dépenses d'un utilisateur : change à chaque écriture
+     */
+    public long getExpenseVersion(Long userId) {
+        Long version = userRepository.findExpenseVersion(userId);
+        return version == null ? 0L : version;
+    }
+
+    /**
+     * Incrémenter la version des dépenses de l'utilisateur et la retourner.
+     * La ligne users reste verrouillée jusqu'au commit : les écritures d'un même utilisateur
+     * sont sérialisées et leurs versions deviennent visibles dans l'ordre.
+     */
+    private long nextExpenseVersion(Long userId) {
+        userRepository.incrementExpenseVersion(userId);
+        return getExpenseVersion(userId);
+    }
+
+    /**
+     * Incrémenter la version des dépenses de l'utilisateur, puis relire en une requête
+     * la nouvelle version et la dépense visée (existence, date de création)
+     */
+    private ExpenseWriteState nextExpenseVersion(Long userId, Long expenseId) {
+        userRepository.incrementExpenseVersion(userId);
+        return expenseRepository.findWriteState(userId, expenseId);
+    }
+
+    /**
+     * Changements depuis un watermark (null : toutes les dépenses).
+     * Le watermark est lu avant les données : une écriture concurrente peut être
+     * renvoyée deux fois (la synchronisation est idempotente), jamais omise.
+     */
+    @Transactional(readOnly = true)
+    public ExpenseChanges getChanges(Long userId, Long since) {
+        long watermark = getExpenseVersion(userId);
+        if (since == null) {
+            return new ExpenseChanges(getAllExpensesByUser(userId), List.of(), watermark);
+        }
+        if (since < 0 || since > watermark) {
+            throw new IllegalArgumentException("Invalid watermark, a full sync is required");
         }
 
-        if (category == null) {
-            throw new RuntimeException("Category is required");
+        return new ExpenseChanges(
+                expenseRepository.findByUserIdAndChangeVersionGreaterThanOrderByChangeVersionAscIdAsc(userId, since),
+                tombstoneRepository.findDeletedIdsSince(userId, since),
+                watermark);
+    }
+
+    /**
+     * Invalider, après commit, les listes en cache d'un utilisateur dont la fenêtre
+     * contient l'une des dates (toutes ses listes si aucune date n'est donnée)
+     */
+    private void invalidateLists(Long userId, LocalDate... dates) {
+        Runnable invalidation = () -> {
+            long generation = listGeneration.incrementAndGet();
+            listCache.asMap().computeIfPresent(userId, (id, lists) -> lists.without(generation, dates));
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        } else {
+            invalidation.run();
         }
+    }
 
-        if (expenseDate == null) {
-            throw new RuntimeException("Expense date is required");
+    /**
+     * Récupérer une page de dépenses par pagination keyset sur (expense_date, id),
+     * projetée directement dans la réponse
+     */
+    @Transactional(readOnly = true)
+    public ExpensePage getExpensesPage(Long userId, DateRange range, String cursor, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        ExpenseCursor after = cursor == null || cursor.isBlank() ? null : ExpenseCursor.decode(cursor);
+
+        // Une ligne de plus pour savoir s'il existe une page suivante
+        PageRequest pageRequest = PageRequest.ofSize(size + 1);
+
+        List<ExpenseResponse> rows;
+        if (range == null) {
+            rows = after == null
+                    ? expenseRepository.findPage(userId, pageRequest)
+                    : expenseRepository.findPageAfter(userId, after.expenseDate(), after.id(), pageRequest);
+        } else {
+            rows = after == null
+                    ? expenseRepository.findPageBetween(userId, range.startDate(), range.endDate(), pageRequest)
+                    : expenseRepository.findPageBetweenAfter(userId, range.startDate(), range.endDate(),
+                            after.expenseDate(), after.id(), pageRequest);
+        }
+
+        if (rows.size() <= size) {
+            return new ExpensePage(rows, null);
+        }
+
+        List<ExpenseResponse> page = rows.subList(0, size);
+        ExpenseResponse last = page.get(size - 1);
+        return new ExpensePage(page, new ExpenseCursor(last.expenseDate(), last.id()).encode());
+    }
+
+    /**
+     * Parcourir les dépenses d'un utilisateur ligne par ligne via un curseur JDBC.
+     * Chaque entité est détachée après traitement pour garder une mémoire constante.
+     */
+    @Transactional(readOnly = true)
+    public void streamExpenses(Long userId, DateRange range, Consumer<Expense> consumer) {
+        try (Stream<Expense> stream = range == null
+                ? expenseRepository.streamByUserIdOrderByExpenseDateDescIdDesc(userId)
+                : expenseRepository.streamByUserIdAndExpenseDateBetweenOrderByExpenseDateDescIdDesc(
+                        userId, range.startDate(), range.endDate())) {
+            stream.forEach(expense -> {
+                consumer.accept(expense);
+                entityManager.detach(expense);
+            });
+        }
+    }
+
+    /**
+     * Calculer les agrégats (total, par catégorie, par mois) côté base de données
+     */
+    @Transactional(readOnly = true)
+    public ExpenseSummary getSummary(Long userId, DateRange range) {
+        List<CategoryTotal> byCategory;
+        List<MonthTotal> byMonth;
+
+        if (range == null) {
+            // Sans filtre, lecture du rollup mensuel : O(mois) au lieu de O(dépenses)
+            byCategory = rollupRepository.sumByCategory(userId);
+            byMonth = rollupRepository.sumByMonth(userId);
+        } else {
+            byCategory = expenseRepository.sumByCategoryBetween(userId, range.startDate(), range.endDate());
+            byMonth = expenseRepository.sumByMonthBetween(userId, range.startDate(), range.endDate());
+        }
+
+        // Le total se déduit des sommes par catégorie, sans requête supplémentaire
+        BigDecimal total = BigDecimal.ZERO;
+        long count = 0;
+        for (CategoryTotal categoryTotal : byCategory) {
+            total = total.add(categoryTotal.getTotalAmount());
+            count += categoryTotal.getExpenseCount();
+        }
+
+        return new ExpenseSummary(total, count, byCategory, byMonth);
+    }
+
+    /**
+     * Modifier une dépense existante, sans charger l'entité. Quatre instructions : incrémentation
+     * de la version, lecture de la dépense visée (existence, date de création) avec la nouvelle
+     * version, déplacement dans le rollup, puis UPDATE filtré sur l'utilisateur.
+     */
+    @Transactional
+    public Expense updateExpense(Long userId, Long expenseId, String description,
+                                 BigDecimal amount, ExpenseCategory category, LocalDate expenseDate) {
+
+        // Validations (mêmes que pour la création)
+        validateExpense(description, amount, category, expenseDate);
+
+        ExpenseWriteState state = nextExpenseVersion(userId, expenseId);
+        if (state.getExpenseId() == null) {
+            // Dépense absente ou d'un autre utilisateur : la transaction (version) est annulée
+            throw new RuntimeException("Expense not found or access denied");
         }
 
-        // Mise à jour
-        expense.setDescription(description.trim());
-        expense.setAmount(amount);
-        expense.setCategory(category);
-        expense.setExpenseDate(expenseDate);
+        Expense expense = new Expense(userId, description.trim(), amount, category, expenseDate);
+        expense.setId(expenseId);
+        expense.setCreatedAt(state.getCreatedAt());
+        expense.setChangeVersion(state.getExpenseVersion());
+
+        // Le rollup lit l'ancien bucket dans la ligne, avant sa mise à jour
+        rollupService.move(userId, expenseId, expense.getExpenseDate(), expense.getCategory(), expense.getAmount());
+        int updated = expenseRepository.updateByIdAndUserId(expenseId, userId, expense.getDescription(),
+                expense.getAmount(), expense.getCategory(), expense.getExpenseDate(), expense.getUpdatedAt(),
+                expense.getChangeVersion());
+        if (updated == 0) {
+            throw new RuntimeException("Expense not found or access denied");
+        }
 
-        return expenseRepository.save(expense);
+        // L'ancienne date n'est pas connue : toutes les listes de l'utilisateur sont invalidées
+        invalidateLists(userId);
+        eventPublisher.publishEvent(new ExpenseChangedEvent(userId, ExpenseChangedEvent.Type.UPDATED,
+                expenseId, expense, expense.getChangeVersion(), 1));
+        return expense;
     }
 
     /**
-     * Supprimer une dépense
+     * Supprimer une dépense, sans charger l'entité. Cinq instructions : incrémentation de la
+     * version, lecture de la dépense visée (existence) avec la nouvelle version, retrait du
+     * rollup, DELETE filtré sur l'utilisateur, puis tombstone pour la synchronisation.
      */
     @Transactional
     public boolean deleteExpense(Long userId, Long expenseId) {
-        // Vérifier que la dépense existe et appartient à l'utilisateur
-        if (!expenseRepository.existsByIdAndUserId(expenseId, userId)) {
+        ExpenseWriteState state = nextExpenseVersion(userId, expenseId);
+        if (state.getExpenseId() == null) {
+            // Dépense absente ou d'un autre utilisateur : la version n'est pas incrémentée
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return false;
         }
+        long version = state.getExpenseVersion();
+
+        // Le rollup lit le bucket dans la ligne, avant sa suppression
+        rollupService.remove(userId, expenseId);
+        if (expenseRepository.deleteByIdAndUserId(expenseId, userId) == 0) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return false;
+        }
+
+        // La suppression est tracée pour la synchronisation incrémentale
+        tombstoneRepository.save(new ExpenseTombstone(expenseId, userId, version));
 
-        expenseRepository.deleteByIdAndUserId(expenseId, userId);
+        // L'ancienne date n'est pas connue : toutes les listes de l'utilisateur sont invalidées
+        invalidateLists(userId);
+        eventPublisher.publishEvent(new ExpenseChangedEvent(userId, ExpenseChangedEvent.Type.DELETED,
+                expenseId, null, version, 1));
         return true;
     }
 
@@ -0,0 +1,16 @@
+package org.example.service;
+
+import org.example.repository.CategoryTotal;
+import org.example.repository.MonthTotal;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Agrégats des dépenses d'un utilisateur : total, par catégorie et par mois
+ */
+public record ExpenseSummary(BigDecimal total,
+                             long count,
+                             List<CategoryTotal> byCategory,
+                             List<MonthTotal> byMonth) {
+}
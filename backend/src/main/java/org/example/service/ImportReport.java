@@ -0,0 +1,15 @@
+package org.example.service;
+
+import java.util.List;
+
+/**
+ * Résultat d'un import : lignes reçues, lignes insérées et erreurs ligne par ligne
+ */
+public record ImportReport(int received, int imported, List<RowError> errors) {
+
+    /**
+     * Erreur de validation d'une ligne (numérotée à partir de 1, hors en-tête CSV)
+     */
+    public record RowError(int row, String message) {
+    }
+}
@@ -1,9 +1,15 @@
 package org.example.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -11,6 +17,9 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
 
 @Service
 public class JwtService {
@@ -22,6 +31,75 @@ public class JwtService {
     @Value("${jwt.expiration.time}")
     private long jwtExpiration;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${jwt.revocation.max-size:100000}")
+    private long revocationMaxSize;
+
+    // Clé et parser construits une seule fois (le parser est immuable et thread-safe)
+    private Key signingKey;
+    private JwtParser parser;
+
+    // Cache token vérifié -> userId, chaque entrée expire avec son token
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    // Liste de révocation : identifiant (jti) -> expiration du token révoqué.
+    // Une entrée vit la durée de validité d'un access token, qui couvre la durée restante
+    // de tout token révoqué. Une entrée évincée par la limite de taille rend le token
+    // utilisable jusqu'à son expiration : la limite doit dépasser le nombre de déconnexions
+    // sur cette durée.
+    private Cache<String, Long> revokedTokenIds;
+
+    private record VerifiedToken(Long userId, String tokenId, long expiresAtMillis) {
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(untilExpiration(VerifiedToken::expiresAtMillis))
+                .build();
+        revokedTokenIds = Caffeine.newBuilder()
+                .maximumSize(revocationMaxSize)
+                .expireAfterWrite(jwtExpiration, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Politique d'expiration Caffeine : l'entrée vit jusqu'à l'expiration du token
+     */
+    private static <V> Expiry<String, V> untilExpiration(ToLongFunction<V> expiresAtMillis) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String key, V value, long currentTime) {
+                long remainingMillis = expiresAtMillis.applyAsLong(value) - System.currentTimeMillis();
+                return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+            }
+
+            @Override
+            public long expireAfterUpdate(String key, V value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+
+            @Override
+            public long expireAfterRead(String key, V value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    /**
+     * Durée de validité d'un access token, en millisecondes
+     */
+    public long getExpirationTime() {
+        return jwtExpiration;
+    }
+
     /**
      * Génère un token JWT pour un utilisateur
      */
@@ -33,26 +111,57 @@ public class JwtService {
 
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userId.toString())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     /**
-     * Extrait l'ID utilisateur du token
+     * Vérifie la signature et l'expiration du token et retourne ses claims.
+     * Lève une JwtException si le token est invalide ou expiré.
+     */
+    public Claims verify(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Extrait l'ID utilisateur du token (vérification mise en cache jusqu'à l'expiration du token)
      */
     public Long getUserIdFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return Long.valueOf(claims.getSubject());
+        VerifiedToken verified = verifiedTokens.getIfPresent(token);
+        if (verified == null) {
+            Claims claims = verify(token);
+            verified = new VerifiedToken(Long.valueOf(claims.getSubject()), claims.getId(),
+                    claims.getExpiration().getTime());
+            verifiedTokens.put(token, verified);
+        }
+
+        if (verified.tokenId() != null && revokedTokenIds.getIfPresent(verified.tokenId()) != null) {
+            throw new JwtException("Token has been revoked");
+        }
+        return verified.userId();
+    }
+
+    /**
+     * Révoque un access token jusqu'à son expiration (déconnexion).
+     * Lève une JwtException si le token est invalide ou expiré.
+     */
+    public void revoke(String token) {
+        Claims claims = verify(token);
+        if (claims.getId() != null) {
+            revokedTokenIds.put(claims.getId(), claims.getExpiration().getTime());
+        }
+        verifiedTokens.invalidate(token);
     }
 
     /**
      * Extrait le username du token
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
+        Claims claims = verify(token);
         return claims.get("username", String.class);
     }
 
@@ -61,28 +170,10 @@ public class JwtService {
      */
     public boolean isTokenValid(String token) {
         try {
-            Claims claims = getClaimsFromToken(token);
-            return !claims.getExpiration().before(new Date());
+            getUserIdFromToken(token);
+            return true;
         } catch (Exception e) {
             return false;
         }
     }
-
-    /**
-     * Extrait les claims du token
-     */
-    private Claims getClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    /**
-     * Génère la clé de signature à partir du secret
-     */
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
-    }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package org.example.service;
+
+/**
+ * Levée lorsque la file de hachage des mots de passe est pleine (réponse HTTP 503)
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingBusyException() {
+        super("Service temporarily overloaded, please retry");
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.service;
+
+import org.example.entity.RefreshToken;
+import org.example.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Émission, rotation et révocation des refresh tokens.
+ * Le renouvellement d'un access token coûte une lecture par clé primaire,
+ * sans recalcul BCrypt du mot de passe.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    // 256 bits d'aléa : un SHA-256 suffit pour le stockage (pas besoin d'un hash lent)
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.refresh.expiration.time:2592000000}")
+    private long refreshExpiration;
+
+    /**
+     * Résultat d'une rotation : l'utilisateur et son nouveau refresh token (en clair)
+     */
+    public record Rotation(Long userId, String refreshToken) {
+    }
+
+    /**
+     * Émettre un nouveau refresh token pour un utilisateur
+     */
+    @Transactional
+    public String issue(Long userId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime expiresAt = LocalDateTime.now().plus(Duration.ofMillis(refreshExpiration));
+        refreshTokenRepository.save(new RefreshToken(hash(rawToken), userId, expiresAt));
+        return rawToken;
+    }
+
+    /**
+     * Consommer un refresh token et en émettre un nouveau.
+     * Retourne null si le token est inconnu, expiré ou déjà consommé.
+     */
+    @Transactional
+    public Rotation rotate(String rawToken) {
+        String tokenHash = hash(rawToken);
+        RefreshToken current = refreshTokenRepository.findById(tokenHash).orElse(null);
+        if (current == null || current.isExpired()) {
+            return null;
+        }
+
+        // Suppression conditionnelle : un seul appel concurrent peut consommer le token
+        if (refreshTokenRepository.deleteByTokenHash(tokenHash) == 0) {
+            return null;
+        }
+        return new Rotation(current.getUserId(), issue(current.getUserId()));
+    }
+
+    /**
+     * Révoquer un refresh token (déconnexion)
+     */
+    public void revoke(String rawToken) {
+        refreshTokenRepository.deleteByTokenHash(hash(rawToken));
+    }
+
+    @Scheduled(cron = "${jwt.refresh.purge-cron:0 0 4 * * *}")
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        log.info("Purged {} expired refresh token(s)", purged);
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -3,57 +3,102 @@ package org.example.service;
 import org.example.entity.User;
 import org.example.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Locale;
+
 @Service
 public class UserService {
 
     @Autowired
     private UserRepository userRepository;
 
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private PasswordHashingService passwordHashingService;
 
     /**
-     * Inscription d'un nouvel utilisateur
+     * Inscription d'un nouvel utilisateur.
+     * Un seul INSERT : l'unicité de l'email et du username est garantie par les contraintes
+     * de la table, y compris entre deux inscriptions simultanées.
      */
     public User registerUser(String username, String email, String password) {
-        // Vérification si l'email existe déjà
-        if (userRepository.existsByEmail(email)) {
-            throw new RuntimeException("Email already exists");
-        }
-
-        // Vérification si le username existe déjà
-        if (userRepository.existsByUsername(username)) {
-            throw new RuntimeException("Username already exists");
-        }
-
         // Validation du mot de passe (minimum 6 caractères)
         if (password == null || password.length() < 6) {
             throw new RuntimeException("Password must be at least 6 characters long");
         }
 
         // Hashage du mot de passe
-        String hashedPassword = passwordEncoder.encode(password);
+        String hashedPassword = passwordHashingService.encode(password);
 
         // Création de l'utilisateur
         User user = new User(username, email, hashedPassword);
 
-        // Sauvegarde en base
-        return userRepository.save(user);
+        // Sauvegarde en base : une violation d'unicité est retournée, sans exception ni log d'erreur
+        String violatedConstraint = userRepository.insertUnlessDuplicate(user);
+        if (violatedConstraint != null) {
+            throw duplicateUser(violatedConstraint);
+        }
+        return user;
     }
 
     /**
-     * Trouver un utilisateur par email
+     * Traduire une violation de contrainte d'unicité en message métier
+     */
+    private RuntimeException duplicateUser(String violatedConstraint) {
+        String constraint = violatedConstraint.toUpperCase(Locale.ROOT);
+
+        if (constraint.contains(User.EMAIL_CONSTRAINT)) {
+            return new RuntimeException("Email already exists");
+        }
+        if (constraint.contains(User.USERNAME_CONSTRAINT) || constraint.contains(User.USERNAME_INDEX)) {
+            return new RuntimeException("Username already exists");
+        }
+        return new RuntimeException("Unique constraint violated: " + violatedConstraint);
+    }
+
+    /**
+     * Trouver un utilisateur par email, via le cache natural-id puis le cache de l'entité :
+     * en cas de succès, aucune requête SQL n'est exécutée
      */
     public User findByEmail(String email) {
-        return userRepository.findByEmail(email).orElse(null);
+        return userRepository.findByNaturalEmail(email);
+    }
+
+    /**
+     * Trouver un utilisateur par ID
+     */
+    public User findById(Long userId) {
+        return userRepository.findById(userId).orElse(null);
     }
 
     /**
      * Vérifier si un mot de passe correspond au hash
      */
     public boolean checkPassword(String rawPassword, String hashedPassword) {
-        return passwordEncoder.matches(rawPassword, hashedPassword);
+        return passwordHashingService.matches(rawPassword, hashedPassword);
+    }
+
+    /**
+     * Authentifier un utilisateur par email et mot de passe.
+     * Si le hash a été produit avec un autre coût BCrypt que celui configuré,
+     * il est recalculé à partir du mot de passe en clair et enregistré ; pool de hachage
+     * saturé, le recalcul est reporté à une prochaine connexion.
+     */
+    public User authenticate(String email, String password) {
+        User user = findByEmail(email);
+        if (user == null || !checkPassword(password, user.getPasswordHash())) {
+            return null;
+        }
+
+        if (passwordHashingService.needsRehash(user.getPasswordHash())) {
+            try {
+                String passwordHash = passwordHashingService.encode(password);
+                userRepository.updatePasswordHash(user.getId(), passwordHash);
+                user.setPasswordHash(passwordHash);
+            } catch (PasswordHashingBusyException e) {
+                // Mot de passe déjà vérifié : la connexion réussit, sans recalcul
+            }
+        }
+        return user;
     }
 }
\ No newline at end of file
@@ -0,0 +1,197 @@
+package org.example.service;
+
+import org.example.entity.Expense;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Export XLSX écrit en flux : chaque feuille est une entrée zip produite ligne à ligne,
+ * avec des chaînes en ligne (pas de table de chaînes partagées à garder en mémoire).
+ * Le classeur, qui liste les feuilles, est écrit en dernier : au-delà de la limite
+ * d'Excel par feuille, l'export continue sur une nouvelle feuille.
+ */
+public class XlsxExpenseExportWriter implements ExpenseExportWriter {
+
+    // Limite d'Excel, en-tête compris
+    private static final int MAX_ROWS_PER_SHEET = 1_048_576;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Numéro de série Excel du 1970-01-01 (jours depuis le 1899-12-30)
+    private static final long EPOCH_SERIAL = 25_569;
+
+    // Styles de cellule définis dans xl/styles.xml
+    private static final int STYLE_AMOUNT = 1;
+    private static final int STYLE_DATE = 2;
+    private static final int STYLE_HEADER = 3;
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String PACKAGE_RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+    // Styles : 0 par défaut, 1 montant (0.00), 2 date (yyyy-mm-dd), 3 en-tête en gras
+    private static final String STYLES = XML_HEADER
+            + "<styleSheet xmlns=\"" + MAIN_NS + "\">"
+            + "<numFmts count=\"1\"><numFmt numFmtId=\"164\" formatCode=\"yyyy-mm-dd\"/></numFmts>"
+            + "<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>"
+            + "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+            + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>"
+            + "<fill><patternFill patternType=\"gray125\"/></fill></fills>"
+            + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+            + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+            + "<cellXfs count=\"4\">"
+            + "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+            + "<xf numFmtId=\"2\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+            + "<xf numFmtId=\"164\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+            + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/>"
+            + "</cellXfs>"
+            + "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>"
+            + "</styleSheet>";
+
+    private final ZipOutputStream zip;
+    private final Writer writer;
+    private int sheets;
+    private int rows;
+
+    public XlsxExpenseExportWriter(OutputStream outputStream) throws IOException {
+        this.zip = new ZipOutputStream(new BufferedOutputStream(outputStream, BUFFER_SIZE), StandardCharsets.UTF_8);
+        // Débit plutôt que taille : la compression ne doit pas ralentir le curseur
+        zip.setLevel(Deflater.BEST_SPEED);
+        this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), BUFFER_SIZE);
+        startSheet();
+    }
+
+    @Override
+    public void write(Expense expense) throws IOException {
+        if (rows == MAX_ROWS_PER_SHEET) {
+            endSheet();
+            startSheet();
+        }
+        rows++;
+        writer.write("<row>");
+        writeText(expense.getDescription(), 0);
+        writeNumber(expense.getAmount().toPlainString(), STYLE_AMOUNT);
+        writeText(expense.getCategory().getDisplayName(), 0);
+        writeNumber(String.valueOf(expense.getExpenseDate().toEpochDay() + EPOCH_SERIAL), STYLE_DATE);
+        writer.write("</row>");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        endSheet();
+        writeEntry("[Content_Types].xml", contentTypes());
+        writeEntry("_rels/.rels", XML_HEADER
+                + "<Relationships xmlns=\"" + PACKAGE_RELATIONSHIPS_NS + "\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + RELATIONSHIPS_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+        writeEntry("xl/workbook.xml", workbook());
+        writeEntry("xl/_rels/workbook.xml.rels", workbookRelationships());
+        writeEntry("xl/styles.xml", STYLES);
+        zip.finish();
+        zip.flush();
+    }
+
+    private void startSheet() throws IOException {
+        sheets++;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheets + ".xml"));
+        writer.write(XML_HEADER);
+        writer.write("<worksheet xmlns=\"" + MAIN_NS + "\"><sheetData><row>");
+        for (String column : new String[]{"description", "amount", "category", "expense_date"}) {
+            writeText(column, STYLE_HEADER);
+        }
+        writer.write("</row>");
+        rows = 1;
+    }
+
+    private void endSheet() throws IOException {
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.write(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private void writeText(String value, int style) throws IOException {
+        writer.write(style == 0 ? "<c t=\"inlineStr\"><is><t>" : "<c s=\"" + style + "\" t=\"inlineStr\"><is><t>");
+        writeEscaped(value);
+        writer.write("</t></is></c>");
+    }
+
+    private void writeNumber(String value, int style) throws IOException {
+        writer.write("<c s=\"");
+        writer.write(String.valueOf(style));
+        writer.write("\"><v>");
+        writer.write(value);
+        writer.write("</v></c>");
+    }
+
+    /**
+     * Échapper le texte pour XML ; les caractères de contrôle, interdits en XML 1.0, sont omis
+     */
+    private void writeEscaped(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> writer.write("&amp;");
+                case '<' -> writer.write("&lt;");
+                case '>' -> writer.write("&gt;");
+                default -> {
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+    }
+
+    private String contentTypes() {
+        StringBuilder xml = new StringBuilder(XML_HEADER)
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>")
+                .append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        for (int sheet = 1; sheet <= sheets; sheet++) {
+            xml.append("<Override PartName=\"/xl/worksheets/sheet").append(sheet)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        return xml.append("</Types>").toString();
+    }
+
+    private String workbook() {
+        StringBuilder xml = new StringBuilder(XML_HEADER)
+                .append("<workbook xmlns=\"").append(MAIN_NS).append("\" xmlns:r=\"").append(RELATIONSHIPS_NS).append("\"><sheets>");
+        for (int sheet = 1; sheet <= sheets; sheet++) {
+            xml.append("<sheet name=\"Expenses").append(sheet == 1 ? "" : " " + sheet)
+                    .append("\" sheetId=\"").append(sheet).append("\" r:id=\"rId").append(sheet).append("\"/>");
+        }
+        return xml.append("</sheets></workbook>").toString();
+    }
+
+    private String workbookRelationships() {
+        StringBuilder xml = new StringBuilder(XML_HEADER)
+                .append("<Relationships xmlns=\"").append(PACKAGE_RELATIONSHIPS_NS).append("\">");
+        for (int sheet = 1; sheet <= sheets; sheet++) {
+            xml.append("<Relationship Id=\"rId").append(sheet).append("\" Type=\"").append(RELATIONSHIPS_NS)
+                    .append("/worksheet\" Target=\"worksheets/sheet").append(sheet).append(".xml\"/>");
+        }
+        xml.append("<Relationship Id=\"rId").append(sheets + 1).append("\" Type=\"").append(RELATIONSHIPS_NS)
+                .append("/styles\" Target=\"styles.xml\"/>");
+        return xml.append("</Relationships>").toString();
+    }
+}
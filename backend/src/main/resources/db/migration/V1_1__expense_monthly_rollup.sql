@@ -0,0 +1,19 @@
+-- Rollup mensuel (ExpenseMonthlyRollup) : somme et nombre de dépenses par utilisateur,
+-- mois (yyyymm) et catégorie, maintenu de manière incrémentale par ExpenseRollupService.
+CREATE TABLE expense_monthly_rollup (
+    user_id       NUMBER(19,0)  NOT NULL,
+    year_month    NUMBER(6,0)   NOT NULL,
+    category      VARCHAR2(50)  NOT NULL,
+    total_amount  NUMBER(14,2)  DEFAULT 0 NOT NULL,
+    expense_count NUMBER(19,0)  DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_expense_monthly_rollup PRIMARY KEY (user_id, year_month, category),
+    CONSTRAINT fk_rollup_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+-- Dépenses déjà présentes (base existante) : le résumé lit le rollup dès le démarrage,
+-- sans attendre la réconciliation nocturne
+INSERT INTO expense_monthly_rollup (user_id, year_month, category, total_amount, expense_count)
+SELECT e.user_id, EXTRACT(YEAR FROM e.expense_date) * 100 + EXTRACT(MONTH FROM e.expense_date),
+       e.category, SUM(e.amount), COUNT(*)
+FROM expenses e
+GROUP BY e.user_id, EXTRACT(YEAR FROM e.expense_date) * 100 + EXTRACT(MONTH FROM e.expense_date), e.category;
@@ -0,0 +1,7 @@
+-- Allocation des identifiants par blocs (optimiseur pooled-lo) : INCREMENT BY doit être égal
+-- à Expense.ID_ALLOCATION_SIZE (50) et User.ID_ALLOCATION_SIZE (20).
+-- ALTER SEQUENCE garde la valeur courante : le prochain bloc commence après tous les
+-- identifiants déjà attribués, y compris par une instance encore en allocationSize = 1
+-- pendant un déploiement progressif.
+ALTER SEQUENCE expense_id_seq INCREMENT BY 50;
+ALTER SEQUENCE user_id_seq INCREMENT BY 20;
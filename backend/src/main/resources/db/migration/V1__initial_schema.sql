@@ -0,0 +1,40 @@
+-- Schéma initial : celui des bases existantes créées avec project_expenses.sql (tables,
+-- contraintes, index et séquences de l'application d'origine, NUMBER(*,0) écrit NUMBER(38,0)).
+-- Une base existante est marquée à cette version par spring.flyway.baseline-on-migrate :
+-- toute évolution du schéma passe par les migrations suivantes, jamais par ce fichier.
+
+CREATE TABLE users (
+    id            NUMBER(38,0)       NOT NULL,
+    username      VARCHAR2(50 BYTE)  NOT NULL,
+    email         VARCHAR2(150 BYTE) NOT NULL,
+    created_at    TIMESTAMP(6)       NOT NULL,
+    password_hash VARCHAR2(255 BYTE) NOT NULL,
+    CONSTRAINT users_pk PRIMARY KEY (id),
+    CONSTRAINT users_unique_email UNIQUE (email)
+);
+
+-- Contrainte d'unicité du username portée par l'index UNIQUE_USERNAME
+CREATE UNIQUE INDEX unique_username ON users (username);
+ALTER TABLE users ADD CONSTRAINT users_unique_username UNIQUE (username);
+
+CREATE TABLE expenses (
+    id           NUMBER,
+    user_id      NUMBER             NOT NULL,
+    description  VARCHAR2(255 BYTE) NOT NULL,
+    amount       NUMBER(10,2)       NOT NULL,
+    category     VARCHAR2(50 BYTE)  NOT NULL,
+    expense_date DATE               NOT NULL,
+    created_at   TIMESTAMP(6)       DEFAULT CURRENT_TIMESTAMP,
+    updated_at   TIMESTAMP(6)       DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id),
+    CONSTRAINT chk_amount_positive CHECK (amount > 0),
+    CONSTRAINT chk_category CHECK (category IN ('Groceries', 'Leisure', 'Electronics', 'Utilities', 'Clothing', 'Health', 'Others')),
+    CONSTRAINT fk_expense_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_expenses_user_id ON expenses (user_id);
+CREATE INDEX idx_expenses_date ON expenses (expense_date);
+
+-- Un identifiant par NEXTVAL (allocationSize = 1) ; allocation par blocs : V1_2
+CREATE SEQUENCE expense_id_seq START WITH 1 INCREMENT BY 1 NOCYCLE;
+CREATE SEQUENCE user_id_seq START WITH 1 INCREMENT BY 1 NOCYCLE;
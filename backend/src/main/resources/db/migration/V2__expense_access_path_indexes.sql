@@ -0,0 +1,7 @@
+-- Index composites pour les chemins d'accès de ExpenseRepository.
+-- Toutes les lectures filtrent sur user_id et trient par (expense_date DESC, id DESC) :
+-- l'index couvre le filtre, le tri et la pagination keyset sans étape SORT.
+CREATE INDEX idx_expenses_user_date_id ON expenses (user_id, expense_date DESC, id DESC);
+
+-- Filtres et agrégats par catégorie sur une période
+CREATE INDEX idx_expenses_user_cat_date ON expenses (user_id, category, expense_date);
@@ -0,0 +1,13 @@
+-- Refresh tokens opaques : seul le SHA-256 (hex) du token est stocké,
+-- la recherche et la rotation se font par clé primaire.
+CREATE TABLE refresh_tokens (
+    token_hash   VARCHAR2(64)  NOT NULL,
+    user_id      NUMBER(19,0)  NOT NULL,
+    expires_at   TIMESTAMP(6)  NOT NULL,
+    created_at   TIMESTAMP(6)  NOT NULL,
+    CONSTRAINT refresh_tokens_pk PRIMARY KEY (token_hash),
+    CONSTRAINT fk_refresh_token_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+-- Purge des tokens expirés
+CREATE INDEX idx_refresh_tokens_expires ON refresh_tokens (expires_at);
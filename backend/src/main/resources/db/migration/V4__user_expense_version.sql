@@ -0,0 +1,3 @@
+-- Version des dépenses de chaque utilisateur, incrémentée par toute écriture
+-- (création, modification, suppression, import) : sert d'ETag aux listes et résumés.
+ALTER TABLE users ADD expense_version NUMBER(19,0) DEFAULT 0 NOT NULL;
@@ -0,0 +1,17 @@
+-- Synchronisation incrémentale : chaque écriture marque les lignes modifiées avec la nouvelle
+-- version des dépenses de l'utilisateur (users.expense_version), qui sert de watermark.
+ALTER TABLE expenses ADD change_version NUMBER(19,0) DEFAULT 0 NOT NULL;
+
+CREATE INDEX idx_expenses_user_change ON expenses (user_id, change_version);
+
+-- Suppressions : une ligne par dépense supprimée, à la version de la suppression
+CREATE TABLE expense_tombstones (
+    expense_id     NUMBER(19,0)  NOT NULL,
+    user_id        NUMBER(19,0)  NOT NULL,
+    change_version NUMBER(19,0)  NOT NULL,
+    deleted_at     TIMESTAMP(6)  NOT NULL,
+    CONSTRAINT expense_tombstones_pk PRIMARY KEY (expense_id),
+    CONSTRAINT fk_tombstone_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_tombstones_user_change ON expense_tombstones (user_id, change_version);
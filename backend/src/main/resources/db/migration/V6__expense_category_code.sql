@@ -0,0 +1,35 @@
+-- Catégorie stockée sous forme d'un code d'un caractère (ExpenseCategory.getCode) au lieu
+-- du libellé VARCHAR2(50) : lignes et index (user_id, category, ...) plus compacts,
+-- GROUP BY et comparaisons sur un seul octet. Le code est l'initiale du libellé,
+-- l'ordre alphabétique des catégories est conservé.
+
+-- Nouvelle colonne remplie depuis le libellé, puis substituée à l'ancienne
+ALTER TABLE expenses ADD category_code CHAR(1);
+
+UPDATE expenses SET category_code = CASE category
+    WHEN 'Groceries' THEN 'G'
+    WHEN 'Leisure' THEN 'L'
+    WHEN 'Electronics' THEN 'E'
+    WHEN 'Utilities' THEN 'U'
+    WHEN 'Clothing' THEN 'C'
+    WHEN 'Health' THEN 'H'
+    WHEN 'Others' THEN 'O'
+END;
+
+ALTER TABLE expenses DROP CONSTRAINT chk_category;
+DROP INDEX idx_expenses_user_cat_date;
+ALTER TABLE expenses DROP COLUMN category;
+ALTER TABLE expenses RENAME COLUMN category_code TO category;
+ALTER TABLE expenses MODIFY (category NOT NULL);
+ALTER TABLE expenses ADD CONSTRAINT chk_category CHECK (category IN ('G', 'L', 'E', 'U', 'C', 'H', 'O'));
+CREATE INDEX idx_expenses_user_cat_date ON expenses (user_id, category, expense_date);
+
+-- Le rollup est dérivé de EXPENSES : vidé, converti en place au code puis reconstruit
+DELETE FROM expense_monthly_rollup;
+ALTER TABLE expense_monthly_rollup MODIFY (category CHAR(1));
+
+INSERT INTO expense_monthly_rollup (user_id, year_month, category, total_amount, expense_count)
+SELECT e.user_id, EXTRACT(YEAR FROM e.expense_date) * 100 + EXTRACT(MONTH FROM e.expense_date),
+       e.category, SUM(e.amount), COUNT(*)
+FROM expenses e
+GROUP BY e.user_id, EXTRACT(YEAR FROM e.expense_date) * 100 + EXTRACT(MONTH FROM e.expense_date), e.category;
@@ -0,0 +1,8 @@
+-- IDX_EXPENSES_USER_ID (user_id) du schéma d'origine est un préfixe de IDX_EXPENSES_USER_DATE_ID :
+-- le filtre user_id et la suppression en cascade depuis USERS passent par l'index composite.
+-- Conservé, il peut être préféré pour les listes (index plus petit), au prix d'un tri
+-- de toutes les dépenses de l'utilisateur avant la première page.
+-- H2 rattache la clé étrangère à cet index : elle est recréée après sa suppression.
+ALTER TABLE expenses DROP CONSTRAINT fk_expense_user;
+DROP INDEX idx_expenses_user_id;
+ALTER TABLE expenses ADD CONSTRAINT fk_expense_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
@@ -0,0 +1,33 @@
+package org.example.config;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.jdbc.dialect.spi.DialectResolutionInfo;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Dialecte H2 pour une base en MODE=Oracle créée par les migrations Flyway (tests, test de charge).
+ *
+ * Les colonnes NUMBER(p,0) des migrations sont vues par H2 comme NUMERIC, là où Hibernate
+ * attend BIGINT ou INTEGER pour les attributs Long et Integer, et les colonnes DATE (date et
+ * heure en Oracle) comme TIMESTAMP(0), là où il attend DATE pour un LocalDate. Sur Oracle,
+ * la validation du schéma (ddl-auto=validate) accepte ces colonnes d'après le nom du type
+ * (NUMBER, DATE) ; ce dialecte rend ces types équivalents pour valider le même schéma sur H2.
+ */
+public class H2OracleModeDialect extends H2Dialect {
+
+    public H2OracleModeDialect() {
+        super();
+    }
+
+    public H2OracleModeDialect(DialectResolutionInfo info) {
+        super(info);
+    }
+
+    @Override
+    public boolean equivalentTypes(int typeCode1, int typeCode2) {
+        return super.equivalentTypes(typeCode1, typeCode2)
+                || SqlTypes.isIntegral(typeCode1) && SqlTypes.isNumericOrDecimal(typeCode2)
+                || SqlTypes.isNumericOrDecimal(typeCode1) && SqlTypes.isIntegral(typeCode2)
+                || typeCode1 == SqlTypes.DATE && typeCode2 == SqlTypes.TIMESTAMP;
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.service;
+
+import org.example.entity.Expense;
+import org.example.entity.ExpenseCategory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Export des descriptions qui commencent comme une formule (injection CSV)
+ */
+class ExpenseExportWriterTest {
+
+    private static final List<String> FORMULAS = List.of(
+            "=HYPERLINK(\"http://example.com\",\"Remboursement\")",
+            "+33 1 23 45 67 89",
+            "-2+3",
+            "@SUM(A1:A2)",
+            "\tTaxi",
+            "\rTaxi");
+
+    @Test
+    void csvPrefixesFormulasAndImportRestoresThem() throws IOException {
+        for (String description : FORMULAS) {
+            String line = csvLine(description);
+            List<String> fields = ExpenseImportService.parseCsvLine(line);
+
+            assertThat(fields.get(0)).isEqualTo("'" + description);
+            assertThat(fields.get(1)).isEqualTo("-12.50");
+            assertThat(CsvExpenseExportWriter.unescapeFormula(fields.get(0))).isEqualTo(description);
+        }
+    }
+
+    @Test
+    void csvKeepsOrdinaryDescriptions() throws IOException {
+        assertThat(ExpenseImportService.parseCsvLine(csvLine("Visite médicale")).get(0)).isEqualTo("Visite médicale");
+        assertThat(ExpenseImportService.parseCsvLine(csvLine("'Quoted'")).get(0)).isEqualTo("'Quoted'");
+        assertThat(CsvExpenseExportWriter.unescapeFormula("'Quoted'")).isEqualTo("'Quoted'");
+    }
+
+    @Test
+    void xlsxWritesFormulasAsInlineStrings() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        XlsxExpenseExportWriter writer = new XlsxExpenseExportWriter(output);
+        writer.write(expense("=HYPERLINK(\"http://example.com\",\"Remboursement\")"));
+        writer.finish();
+
+        String sheet = zipEntry(output.toByteArray(), "xl/worksheets/sheet1.xml");
+        assertThat(sheet)
+                .contains("<c t=\"inlineStr\"><is><t>=HYPERLINK(\"http://example.com\",\"Remboursement\")</t></is></c>")
+                .doesNotContain("<f>");
+    }
+
+    private static String csvLine(String description) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CsvExpenseExportWriter writer = new CsvExpenseExportWriter(output);
+        writer.write(expense(description));
+        writer.finish();
+
+        String csv = output.toString(StandardCharsets.UTF_8);
+        // Ligne de la dépense, après l'en-tête ; un \r en tête de description reste entre guillemets
+        return csv.substring(csv.indexOf("\r\n") + 2, csv.length() - 2);
+    }
+
+    private static Expense expense(String description) {
+        return new Expense(1L, description, new BigDecimal("-12.50"), ExpenseCategory.OTHERS, LocalDate.of(2025, 3, 14));
+    }
+
+    private static String zipEntry(byte[] zip, String name) throws IOException {
+        try (ZipInputStream input = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = input.getNextEntry()) != null) {
+                if (entry.getName().equals(name)) {
+                    return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        throw new AssertionError("Missing zip entry: " + name);
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.entity.ExpenseCategory;
+import org.example.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Éviction des shards de recherche remplis après leur chargement
+ */
+@SpringBootTest(properties = "expense.search.max-expenses=10")
+class ExpenseSearchServiceEvictionTest {
+
+    @Autowired
+    private ExpenseSearchService expenseSearchService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shardsGrownInPlaceAreEvictedPastMaxExpenses() {
+        Long first = registerUser();
+        Long second = registerUser();
+
+        // Shards chargés vides (poids 1), puis remplis par les écritures
+        search(first);
+        search(second);
+        addExpenses(first, 8);
+        assertThat(cacheSize()).isEqualTo(2);
+        addExpenses(second, 8);
+
+        // 2 × (8 + 1) dépasse expense.search.max-expenses : un shard est libéré
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertThat(meterRegistry.get("cache.evictions").tag("cache", "expense.search")
+                    .functionCounter().count()).isGreaterThanOrEqualTo(1);
+            assertThat(cacheSize()).isEqualTo(1);
+        });
+
+        // Un shard libéré est reconstruit depuis la table à la recherche suivante
+        assertThat(search(first)).isEqualTo(8);
+        assertThat(search(second)).isEqualTo(8);
+    }
+
+    private Long registerUser() {
+        String name = "search-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = userService.registerUser(name, name + "@example.com", "password");
+        return user.getId();
+    }
+
+    private void addExpenses(Long userId, int count) {
+        for (int i = 0; i < count; i++) {
+            expenseService.createExpense(userId, "Visite médicale " + i, new BigDecimal("25.00"),
+                    ExpenseCategory.HEALTH, LocalDate.of(2025, 3, 1).plusDays(i));
+        }
+    }
+
+    private int search(Long userId) {
+        return expenseSearchService.search(userId, expenseService.getExpenseVersion(userId),
+                "medic", null, null, 100).size();
+    }
+
+    private double cacheSize() {
+        return meterRegistry.get("cache.size").tag("cache", "expense.search").gauge().value();
+    }
+}
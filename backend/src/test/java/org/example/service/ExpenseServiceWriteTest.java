@@ -0,0 +1,74 @@
+package org.example.service;
+
+import org.example.entity.Expense;
+import org.example.entity.ExpenseCategory;
+import org.example.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Modification et suppression d'une dépense sans chargement de l'entité
+ */
+@SpringBootTest
+class ExpenseServiceWriteTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private UserService userService;
+
+    private Long userId;
+
+    @BeforeEach
+    void registerUser() {
+        String name = "writer-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = userService.registerUser(name, name + "@example.com", "password");
+        userId = user.getId();
+    }
+
+    @Test
+    void updateReturnsPersistedCreationDate() {
+        Expense created = expenseService.createExpense(userId, "Lunch", new BigDecimal("12.50"),
+                ExpenseCategory.GROCERIES, LocalDate.of(2025, 3, 14));
+        Expense persisted = expenseService.getExpenseById(userId, created.getId());
+
+        Expense updated = expenseService.updateExpense(userId, created.getId(), "Dinner", new BigDecimal("30.00"),
+                ExpenseCategory.LEISURE, LocalDate.of(2025, 4, 2));
+
+        assertThat(updated.getCreatedAt()).isNotNull().isEqualTo(persisted.getCreatedAt());
+        assertThat(updated.getChangeVersion()).isGreaterThan(created.getChangeVersion());
+        assertThat(expenseService.getExpenseById(userId, created.getId()).getDescription()).isEqualTo("Dinner");
+    }
+
+    @Test
+    void updateOfMissingExpenseIsRejectedWithoutNewVersion() {
+        long version = expenseService.getExpenseVersion(userId);
+
+        assertThatThrownBy(() -> expenseService.updateExpense(userId, Long.MAX_VALUE, "Dinner",
+                new BigDecimal("30.00"), ExpenseCategory.LEISURE, LocalDate.of(2025, 4, 2)))
+                .hasMessage("Expense not found or access denied");
+        assertThat(expenseService.getExpenseVersion(userId)).isEqualTo(version);
+    }
+
+    @Test
+    void deleteOfMissingExpenseReturnsFalseWithoutNewVersion() {
+        Expense created = expenseService.createExpense(userId, "Lunch", new BigDecimal("12.50"),
+                ExpenseCategory.GROCERIES, LocalDate.of(2025, 3, 14));
+        long version = expenseService.getExpenseVersion(userId);
+
+        assertThat(expenseService.deleteExpense(userId, Long.MAX_VALUE)).isFalse();
+        assertThat(expenseService.getExpenseVersion(userId)).isEqualTo(version);
+        assertThat(expenseService.deleteExpense(userId, created.getId())).isTrue();
+        assertThat(expenseService.getExpenseById(userId, created.getId())).isNull();
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.entity.User;
+import org.example.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Connexion : recalcul du hash lorsque le coût BCrypt configuré a changé
+ */
+@SpringBootTest
+class UserServiceAuthenticationTest {
+
+    // Coût configuré pour les tests (password.bcrypt.strength=4)
+    private static final String CONFIGURED_COST = "$2a$04$";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @SpyBean
+    private PasswordHashingService passwordHashingService;
+
+    private User user;
+
+    @BeforeEach
+    void registerUserWithOtherCost() {
+        String name = "login-" + UUID.randomUUID().toString().substring(0, 8);
+        user = userService.registerUser(name, name + "@example.com", "password");
+        userRepository.updatePasswordHash(user.getId(), new BCryptPasswordEncoder(5).encode("password"));
+    }
+
+    @Test
+    void loginRehashesPasswordWithConfiguredCost() {
+        User authenticated = userService.authenticate(user.getEmail(), "password");
+
+        assertThat(authenticated).isNotNull();
+        assertThat(authenticated.getPasswordHash()).startsWith(CONFIGURED_COST);
+        assertThat(userService.findByEmail(user.getEmail()).getPasswordHash())
+                .isEqualTo(authenticated.getPasswordHash());
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getPasswordHash())
+                .isEqualTo(authenticated.getPasswordHash());
+        assertThat(userService.authenticate(user.getEmail(), "password")).isNotNull();
+    }
+
+    @Test
+    void loginRehashesPasswordWithOpenEntityManagerInView() {
+        // Comme OpenEntityManagerInViewInterceptor : un EntityManager lié à la requête,
+        // dans lequel findByEmail charge l'utilisateur en lecture seule
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        User authenticated;
+        try {
+            authenticated = userService.authenticate(user.getEmail(), "password");
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+
+        assertThat(authenticated.getPasswordHash()).startsWith(CONFIGURED_COST);
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getPasswordHash())
+                .isEqualTo(authenticated.getPasswordHash());
+    }
+
+    @Test
+    void loginSucceedsWithoutRehashWhenHashingPoolIsBusy() {
+        String hash = userService.findByEmail(user.getEmail()).getPasswordHash();
+        doThrow(new PasswordHashingBusyException()).when(passwordHashingService).encode("password");
+
+        User authenticated = userService.authenticate(user.getEmail(), "password");
+
+        assertThat(authenticated).isNotNull();
+        assertThat(authenticated.getPasswordHash()).isEqualTo(hash);
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getPasswordHash()).isEqualTo(hash);
+    }
+
+    @Test
+    void loginWithWrongPasswordKeepsHash() {
+        String hash = userService.findByEmail(user.getEmail()).getPasswordHash();
+
+        assertThat(userService.authenticate(user.getEmail(), "wrong-password")).isNull();
+        assertThat(userService.findByEmail(user.getEmail()).getPasswordHash()).isEqualTo(hash);
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.service;
+
+import org.example.entity.User;
+import org.example.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inscriptions simultanées sur le même email ou le même username : une seule réussit,
+ * les autres sont rejetées par les contraintes d'unicité avec le message métier
+ */
+@SpringBootTest
+class UserServiceConcurrentRegistrationTest {
+
+    private static final int REGISTRATIONS = 8;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentRegistrationsWithSameEmailCreateOneUser() throws Exception {
+        List<String> rejections = registerConcurrently(
+                i -> userService.registerUser("email-race-" + i, "race@example.com", "password"));
+
+        assertThat(rejections).hasSize(REGISTRATIONS - 1).containsOnly("Email already exists");
+        assertThat(userRepository.findByEmail("race@example.com")).isPresent();
+    }
+
+    @Test
+    void concurrentRegistrationsWithSameUsernameCreateOneUser() throws Exception {
+        List<String> rejections = registerConcurrently(
+                i -> userService.registerUser("username-race", "username-race-" + i + "@example.com", "password"));
+
+        assertThat(rejections).hasSize(REGISTRATIONS - 1).containsOnly("Username already exists");
+        assertThat(userRepository.findByUsername("username-race")).isPresent();
+    }
+
+    /**
+     * Lance les inscriptions en même temps et retourne les messages des inscriptions rejetées
+     */
+    private List<String> registerConcurrently(IntFunction<User> registration) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(REGISTRATIONS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<User>> results = new ArrayList<>();
+            for (int i = 0; i < REGISTRATIONS; i++) {
+                int index = i;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return registration.apply(index);
+                }));
+            }
+            start.countDown();
+
+            List<String> rejections = new ArrayList<>();
+            for (Future<User> result : results) {
+                try {
+                    assertThat(result.get().getId()).isNotNull();
+                } catch (ExecutionException e) {
+                    rejections.add(e.getCause().getMessage());
+                }
+            }
+            return rejections;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
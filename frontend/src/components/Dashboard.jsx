@@ -24,10 +24,10 @@ function getCategoryDisplayName(category) {
 }
 
 export default function Dashboard() {
-  const { expenses, loading, filter, setFilter, createExpense, updateExpense, deleteExpense, editingExpenseId, setEditingExpenseId } = useExpenses();
+  const { expenses, summary, loading, filter, setFilter, createExpense, updateExpense, deleteExpense, editingExpenseId, setEditingExpenseId } = useExpenses();
   const [form, setForm] = useState({ description: "", amount: "", category: "Groceries", expense_date: new Date().toISOString().split("T")[0] });
 
-  const total = useMemo(() => expenses.reduce((sum, e) => sum + parseFloat(e.amount || 0), 0), [expenses]);
+  const total = useMemo(() => parseFloat(summary.total || 0), [summary]);
 
   const onSubmit = async (e) => {
     e.preventDefault();
@@ -62,7 +62,7 @@ export default function Dashboard() {
         </div>
         <div className="stat-card">
           <h3>Dépenses</h3>
-          <p className="count">{expenses.length}</p>
+          <p className="count">{summary.count}</p>
         </div>
       </div>
 
@@ -1,5 +1,5 @@
 import React, { createContext, useContext, useEffect, useMemo, useState } from "react";
-import { api } from "../services/api.js";
+import { api, setRefreshHandler } from "../services/api.js";
 
 const AuthContext = createContext(null);
 
@@ -15,6 +15,20 @@ export function AuthProvider({ children }) {
       setToken(savedToken);
       setUser(JSON.parse(savedUser));
     }
+
+    setRefreshHandler(async () => {
+      const refreshToken = localStorage.getItem("expense-tracker-refresh-token");
+      if (!refreshToken) return null;
+      const data = await api.post("/users/refresh", { refresh_token: refreshToken });
+      if (!data.success) {
+        clearSession();
+        return null;
+      }
+      setToken(data.token);
+      localStorage.setItem("expense-tracker-token", data.token);
+      localStorage.setItem("expense-tracker-refresh-token", data.refresh_token);
+      return data.token;
+    });
   }, []);
 
   const login = async (email, password) => {
@@ -23,6 +37,7 @@ export function AuthProvider({ children }) {
       setToken(data.token);
       setUser(data.user);
       localStorage.setItem("expense-tracker-token", data.token);
+      localStorage.setItem("expense-tracker-refresh-token", data.refresh_token);
       localStorage.setItem("expense-tracker-user", JSON.stringify(data.user));
     }
     return data;
@@ -33,13 +48,20 @@ export function AuthProvider({ children }) {
     return data;
   };
 
-  const logout = () => {
+  const clearSession = () => {
     setToken(null);
     setUser(null);
     localStorage.removeItem("expense-tracker-token");
+    localStorage.removeItem("expense-tracker-refresh-token");
     localStorage.removeItem("expense-tracker-user");
   };
 
+  const logout = () => {
+    const refreshToken = localStorage.getItem("expense-tracker-refresh-token");
+    api.post("/users/logout", { refresh_token: refreshToken }, { token, retry: false });
+    clearSession();
+  };
+
   const value = useMemo(
     () => ({ user, token, login, register, logout, activeTab, setActiveTab }),
     [user, token, activeTab]
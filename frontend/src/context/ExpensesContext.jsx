@@ -1,53 +1,137 @@
-import React, { createContext, useContext, useEffect, useMemo, useState } from "react";
+import React, { createContext, useContext, useEffect, useMemo, useRef, useState } from "react";
 import { useAuth } from "./AuthContext.jsx";
-import { api } from "../services/api.js";
+import { api, subscribe } from "../services/api.js";
 
 const ExpensesContext = createContext(null);
 
+const RECONNECT_DELAY_MS = 3000;
+
+// Same windows as the backend filters (week, month, 3months), as YYYY-MM-DD bounds
+function inFilter(expense, filter) {
+  if (filter === "all") return true;
+  const today = new Date();
+  const start = new Date(today);
+  if (filter === "week") start.setDate(start.getDate() - 7);
+  else if (filter === "month") start.setMonth(start.getMonth() - 1);
+  else if (filter === "3months") start.setMonth(start.getMonth() - 3);
+  const iso = (d) => `${d.getFullYear()}-${String(d.getMonth() + 1).padStart(2, "0")}-${String(d.getDate()).padStart(2, "0")}`;
+  return expense.expense_date >= iso(start) && expense.expense_date <= iso(today);
+}
+
+// Server order: expense_date DESC, id DESC
+function byDateDesc(a, b) {
+  if (a.expense_date !== b.expense_date) return a.expense_date < b.expense_date ? 1 : -1;
+  return b.id - a.id;
+}
+
 export function ExpensesProvider({ children }) {
   const { token } = useAuth();
   const [expenses, setExpenses] = useState([]);
+  const [summary, setSummary] = useState({ total: 0, count: 0 });
   const [loading, setLoading] = useState(false);
   const [filter, setFilter] = useState("all");
   const [editingExpenseId, setEditingExpenseId] = useState(null);
+  const filterRef = useRef(filter);
+  const liveRef = useRef(false);
 
   useEffect(() => {
+    filterRef.current = filter;
     if (token) load();
   }, [token, filter]);
 
+  // Live updates: other tabs' changes are applied to the list without refetching it
+  useEffect(() => {
+    if (!token) return;
+    const controller = new AbortController();
+    let stopped = false;
+    let connectedBefore = false;
+
+    const handleEvent = (type, data) => {
+      if (type === "connected") {
+        liveRef.current = true;
+        // Events may have been missed while disconnected
+        if (connectedBefore) load();
+        connectedBefore = true;
+      } else if (type === "created" || type === "updated") {
+        setExpenses((list) => {
+          const others = list.filter((e) => e.id !== data.id);
+          return inFilter(data, filterRef.current) ? [data, ...others].sort(byDateDesc) : others;
+        });
+        loadSummary();
+      } else if (type === "deleted") {
+        setExpenses((list) => list.filter((e) => e.id !== data.id));
+        loadSummary();
+      } else if (type === "imported") {
+        load();
+      }
+    };
+
+    (async () => {
+      while (!stopped) {
+        try {
+          await subscribe("/expenses/events", { token, signal: controller.signal, onEvent: handleEvent });
+        } catch {
+          // Network error or abort: retry below unless stopped
+        }
+        liveRef.current = false;
+        if (!stopped) await new Promise((resolve) => setTimeout(resolve, RECONNECT_DELAY_MS));
+      }
+    })();
+
+    return () => {
+      stopped = true;
+      liveRef.current = false;
+      controller.abort();
+    };
+  }, [token]);
+
+  // Read through the ref: event handlers outlive the render that created them
+  const filterQuery = () => (filterRef.current !== "all" ? `?filter=${encodeURIComponent(filterRef.current)}` : "");
+
+  const loadSummary = async () => {
+    const summaryData = await api.get(`/expenses/summary${filterQuery()}`, { token });
+    if (summaryData.success) setSummary({ total: summaryData.total, count: summaryData.count });
+  };
+
   const load = async () => {
     if (!token) return;
     setLoading(true);
     try {
-      const query = filter !== "all" ? `?filter=${encodeURIComponent(filter)}` : "";
-      const data = await api.get(`/expenses${query}`, { token });
+      const query = filterQuery();
+      const [data, summaryData] = await Promise.all([
+        api.get(`/expenses${query}`, { token }),
+        api.get(`/expenses/summary${query}`, { token }),
+      ]);
       if (data.success) setExpenses(data.expenses || []);
+      if (summaryData.success) setSummary({ total: summaryData.total, count: summaryData.count });
     } finally {
       setLoading(false);
     }
   };
 
+  // With a live event stream the change comes back as an event; otherwise reload
   const createExpense = async (payload) => {
     const data = await api.post("/expenses", payload, { token });
-    if (data.success) await load();
+    if (data.success && !liveRef.current) await load();
     return data;
   };
 
   const updateExpense = async (id, payload) => {
     const data = await api.put(`/expenses/${id}`, payload, { token });
-    if (data.success) await load();
+    if (data.success && !liveRef.current) await load();
     return data;
   };
 
   const deleteExpense = async (id) => {
     const data = await api.delete(`/expenses/${id}`, { token });
-    if (data.success) await load();
+    if (data.success && !liveRef.current) await load();
     return data;
   };
 
   const value = useMemo(
     () => ({
       expenses,
+      summary,
       loading,
       filter,
       setFilter,
@@ -58,7 +142,7 @@ export function ExpensesProvider({ children }) {
       editingExpenseId,
       setEditingExpenseId,
     }),
-    [expenses, loading, filter, editingExpenseId]
+    [expenses, summary, loading, filter, editingExpenseId]
   );
 
   return <ExpensesContext.Provider value={value}>{children}</ExpensesContext.Provider>;
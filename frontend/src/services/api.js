@@ -1,6 +1,24 @@
 const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || "http://localhost:8080/api";
 
-async function request(path, { method = "GET", token, body } = {}) {
+let refreshHandler = null;
+let refreshInFlight = null;
+
+// Registered by AuthContext: renews the access token and resolves to it (or null)
+export function setRefreshHandler(handler) {
+  refreshHandler = handler;
+}
+
+// Refresh tokens are single-use, so concurrent 401s share one refresh call
+function refreshAccessToken() {
+  if (!refreshInFlight) {
+    refreshInFlight = refreshHandler().finally(() => {
+      refreshInFlight = null;
+    });
+  }
+  return refreshInFlight;
+}
+
+async function request(path, { method = "GET", token, body, retry = true } = {}) {
   const headers = { "Content-Type": "application/json" };
   if (token) headers.Authorization = `Bearer ${token}`;
 
@@ -10,10 +28,54 @@ async function request(path, { method = "GET", token, body } = {}) {
     body: body ? JSON.stringify(body) : undefined,
   });
 
+  if (res.status === 401 && token && retry && refreshHandler) {
+    const newToken = await refreshAccessToken();
+    if (newToken) return request(path, { method, token: newToken, body, retry: false });
+  }
+
   const data = await res.json().catch(() => ({}));
   return data;
 }
 
+// Reads a Server-Sent Events stream with fetch: EventSource cannot send the Authorization header.
+// Resolves when the server closes the stream; rejects on network errors or abort.
+export async function subscribe(path, { token, signal, onEvent }) {
+  const res = await fetch(`${API_BASE_URL}${path}`, {
+    headers: { Authorization: `Bearer ${token}`, Accept: "text/event-stream" },
+    signal,
+  });
+
+  if (res.status === 401 && refreshHandler) {
+    // The new token re-renders the subscriber, which reconnects with it
+    await refreshAccessToken();
+    return;
+  }
+  if (!res.ok || !res.body) throw new Error(`Event stream failed: ${res.status}`);
+
+  const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+  let buffer = "";
+  for (;;) {
+    const { value, done } = await reader.read();
+    if (done) return;
+    buffer += value;
+
+    let boundary;
+    while ((boundary = buffer.indexOf("\n\n")) >= 0) {
+      const block = buffer.slice(0, boundary);
+      buffer = buffer.slice(boundary + 2);
+
+      let event = "message";
+      const data = [];
+      for (const line of block.split("\n")) {
+        if (line.startsWith("event:")) event = line.slice(6).trim();
+        else if (line.startsWith("data:")) data.push(line.slice(5).replace(/^ /, ""));
+      }
+      // Comment-only blocks (heartbeats) carry no data
+      if (data.length) onEvent(event, JSON.parse(data.join("\n")));
+    }
+  }
+}
+
 export const api = {
   get: (path, opts) => request(path, { ...opts, method: "GET" }),
   post: (path, body, opts) => request(path, { ...opts, method: "POST", body }),